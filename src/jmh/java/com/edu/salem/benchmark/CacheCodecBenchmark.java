@@ -0,0 +1,100 @@
+package com.edu.salem.benchmark;
+
+import com.edu.salem.cache.SearchResponseCodec;
+import com.edu.salem.config.RedisConfig;
+import com.edu.salem.model.PaginationModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({"10", "60", "500"})
+    private int products;
+
+    @Param({"JACKSON", "BINARY", "BINARY_LZ4"})
+    private String codec;
+
+    private RedisSerializer<Object> serializer;
+    private SearchResponseModel searchResponseModel;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = switch (codec) {
+            case "BINARY" -> new SearchResponseCodec(RedisConfig.redisSerializer(), -1);
+            case "BINARY_LZ4" -> new SearchResponseCodec(RedisConfig.redisSerializer(), 0);
+            default -> RedisConfig.redisSerializer();
+        };
+        searchResponseModel = SampleData.searchResponse(products);
+        encoded = serializer.serialize(searchResponseModel);
+        System.out.printf("%n%s products=%d bytes/entry=%d%n", codec, products, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(searchResponseModel);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return serializer.deserialize(serializer.serialize(searchResponseModel));
+    }
+
+    static final class SampleData {
+
+        private SampleData() {
+        }
+
+        static SearchResponseModel searchResponse(final int size) {
+            final List<Product> products = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                products.add(new Product("MLB" + (1_000_000 + i),
+                        "Smartphone Acme Model " + i + " 128GB Dual Chip Black",
+                        "category-" + (i % 12),
+                        "acme-" + (i % 40)));
+            }
+            final Map<String, Map<String, Long>> filters = new HashMap<>();
+            final Map<String, Long> categories = new HashMap<>();
+            final Map<String, Long> entities = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+                categories.put("category-" + i, 1000L - i);
+                entities.put("acme-" + i, 500L - i);
+            }
+            filters.put("category", categories);
+            filters.put("entity", entities);
+            return new SearchResponseModel.Builder(12_345L, products, filters)
+                    .setPaginationModel(new PaginationModel(size, 0))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.edu.salem.benchmark;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import jakarta.json.stream.JsonParser;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelConversionBenchmark {
+
+    @Param({"10", "60", "500"})
+    private int hits;
+
+    @Param({"10", "100"})
+    private int buckets;
+
+    private final JsonpMapper mapper = new JacksonJsonpMapper();
+    private final JsonpDeserializer<SearchResponse<Product>> deserializer =
+            SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(Product.class));
+    private QueryBuilder queryBuilder;
+    private ComplexQueryRequestModel request;
+    private byte[] responseBody;
+    private SearchResponse<Product> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queryBuilder = new QueryBuilder(0.3, true, "id", "", 10000,
+                QuerySettings.parse("title, entity", "category, entity", 0, 0, ""));
+        request = new ComplexQueryRequestModel("smartphone", Map.of(), null);
+        request.setSize(hits);
+        responseBody = recordedResponse(hits, buckets).getBytes(StandardCharsets.UTF_8);
+        response = parse();
+        System.out.printf("%nhits=%d buckets=%d bytes/response=%d%n", hits, buckets, responseBody.length);
+    }
+
+    @Benchmark
+    public SearchResponse<Product> parse() {
+        try (JsonParser parser = mapper.jsonProvider().createParser(new ByteArrayInputStream(responseBody))) {
+            return deserializer.deserialize(parser, mapper);
+        }
+    }
+
+    @Benchmark
+    public SearchResponseModel toModelConversion() {
+        return queryBuilder.toModelConversion(Optional.of(response), response, request);
+    }
+
+    @Benchmark
+    public SearchResponseModel parseAndConvert() {
+        final SearchResponse<Product> parsed = parse();
+        return queryBuilder.toModelConversion(Optional.of(parsed), parsed, request);
+    }
+
+    static String recordedResponse(final int hits, final int buckets) {
+        final StringBuilder json = new StringBuilder(256 + hits * 256 + buckets * 96)
+                .append("{\"took\":7,\"timed_out\":false,")
+                .append("\"_shards\":{\"total\":3,\"successful\":3,\"skipped\":0,\"failed\":0},")
+                .append("\"hits\":{\"total\":{\"value\":12345,\"relation\":\"eq\"},\"max_score\":null,\"hits\":[");
+        for (int i = 0; i < hits; i++) {
+            final String id = "MLB" + (1_000_000 + i);
+            final double score = 25.0 - i * 0.01;
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"_index\":\"products\",\"_id\":\"").append(id).append("\",\"_score\":").append(score)
+                    .append(",\"_source\":{\"id\":\"").append(id)
+                    .append("\",\"title\":\"Smartphone Acme Model ").append(i).append(" 128GB Dual Chip Black\"")
+                    .append(",\"category\":\"category-").append(i % 12)
+                    .append("\",\"entity\":\"acme-").append(i % 40).append("\"}")
+                    .append(",\"sort\":[").append(score).append(",\"").append(id).append("\"]}");
+        }
+        json.append("]},\"aggregations\":{");
+        for (String field : new String[]{"category", "entity"}) {
+            json.append("category".equals(field) ? "" : ",")
+                    .append("\"sterms#").append(field)
+                    .append("\":{\"doc_count_error_upper_bound\":0,\"sum_other_doc_count\":4321,\"buckets\":[");
+            for (int i = 0; i < buckets; i++) {
+                json.append(i == 0 ? "" : ",")
+                        .append("{\"key\":\"").append(field).append('-').append(i)
+                        .append("\",\"doc_count\":").append(10_000 - i).append('}');
+            }
+            json.append("]}");
+        }
+        return json.append("}}").toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.edu.salem.benchmark;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import jakarta.json.stream.JsonGenerator;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.JsonpSerializable;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch._types.aggregations.Aggregation;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuilderBenchmark {
+
+    @Param({"0", "2", "8"})
+    private int filters;
+
+    private final JsonpMapper mapper = new JacksonJsonpMapper();
+    private QueryBuilder queryBuilder;
+    private ComplexQueryRequestModel request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queryBuilder = new QueryBuilder(0.3, true, "id", "", 10000,
+                QuerySettings.parse("title^2, entity", "category, entity", 0, 0, ""));
+        final Map<String, String> requestFilters = new LinkedHashMap<>();
+        for (int i = 0; i < filters; i++) {
+            requestFilters.put(i % 2 == 0 ? "category" : "entity", "value-" + i);
+        }
+        request = new ComplexQueryRequestModel("smartphone samsung galaxy 128gb", requestFilters, null);
+    }
+
+    @Benchmark
+    public String buildQuery() {
+        return render(queryBuilder.buildQuery(request));
+    }
+
+    @Benchmark
+    public String buildFilterQueries() {
+        return render(QueryBuilder.buildFilterQueries(request));
+    }
+
+    @Benchmark
+    public String buildAggregationFilters() {
+        final StringWriter json = new StringWriter();
+        try (JsonGenerator generator = mapper.jsonProvider().createGenerator(json)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Aggregation> aggregation : queryBuilder.buildAggregationFilters().entrySet()) {
+                generator.writeKey(aggregation.getKey());
+                aggregation.getValue().serialize(generator, mapper);
+            }
+            generator.writeEnd();
+        }
+        return json.toString();
+    }
+
+    @Benchmark
+    public String typedSearchRequest() {
+        return render(SearchRequest.of(s -> s
+                .size(request.getSize())
+                .from(request.getFrom())
+                .sort(queryBuilder.buildCursorSort())
+                .query(queryBuilder.buildQuery(request))
+                .aggregations(queryBuilder.buildAggregationFilters())));
+    }
+
+    @Benchmark
+    public byte[] precompiledSearchRequest() {
+        return queryBuilder.renderSearch(request, null, true, true);
+    }
+
+    private String render(final JsonpSerializable value) {
+        final StringWriter json = new StringWriter();
+        try (JsonGenerator generator = mapper.jsonProvider().createGenerator(json)) {
+            value.serialize(generator, mapper);
+        }
+        return json.toString();
+    }
+}
@@ -0,0 +1,193 @@
+package com.edu.salem.loadtest;
+
+import com.edu.salem.SalemApplication;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public final class LoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTest() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> options = new HashMap<>();
+        final List<String> salemArgs = new ArrayList<>();
+        for (String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            final String key = arg.substring(2, separator);
+            if (key.contains(".")) {
+                salemArgs.add(arg);
+            } else {
+                options.put(key, arg.substring(separator + 1));
+            }
+        }
+
+        final double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        final Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        final Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        final Duration timeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeoutMillis", "5000")));
+        final List<String> bodies = queries(options.get("queries"),
+                Integer.parseInt(options.getOrDefault("distinctQueries", "500")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        final byte[] searchResponse = RecordedResponses.search(options.get("responses"),
+                Integer.parseInt(options.getOrDefault("hits", "60")),
+                Integer.parseInt(options.getOrDefault("buckets", "10")));
+        final Path output = Path.of(options.getOrDefault("output", "target/loadtest-result.json"));
+
+        final int redisPort = freePort();
+        final RedisServer redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        final OpenSearchStub openSearchStub = new OpenSearchStub(searchResponse,
+                Long.parseLong(options.getOrDefault("stubLatencyMillis", "20")),
+                Long.parseLong(options.getOrDefault("stubJitterMillis", "10")));
+        final OpenLoopDriver driver = new OpenLoopDriver(timeout);
+        ConfigurableApplicationContext context = null;
+        try {
+            final SpringApplication application = new SpringApplication(SalemApplication.class);
+            salemProperties(openSearchStub.port(), redisPort).forEach(System::setProperty);
+            context = application.run(salemArgs.toArray(new String[0]));
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            System.out.printf("%nReplaying %d queries at %.0f req/s for %ds (+%ds warmup) against :%d%n",
+                    bodies.size(), rate, duration.toSeconds(), warmup.toSeconds(), port);
+            final long searchesBefore = openSearchStub.searches();
+            final OpenLoopDriver.Result result = driver.run(URI.create("http://127.0.0.1:" + port + "/query"),
+                    bodies, rate, warmup, duration);
+            final Map<String, Object> report = report(options, salemArgs, result,
+                    openSearchStub.searches() - searchesBefore, meterRegistry);
+
+            final String json = OBJECT_MAPPER.writeValueAsString(report);
+            System.out.println(json);
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            Files.writeString(output, json, StandardCharsets.UTF_8);
+        } finally {
+            driver.close();
+            if (context != null) {
+                context.close();
+            }
+            openSearchStub.close();
+            redisServer.stop();
+        }
+    }
+
+    private static Map<String, String> salemProperties(final int openSearchPort, final int redisPort) {
+        // System properties outrank application.yml but still yield to --key=value passthrough arguments
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("management.data.openSearch.hosts", "127.0.0.1:" + openSearchPort);
+        properties.put("management.data.openSearch.productIndex", "products");
+        properties.put("management.redis.hostname", "127.0.0.1");
+        properties.put("management.redis.port", String.valueOf(redisPort));
+        properties.put("management.redis.cache.enabled", "true");
+        properties.put("logging.level.root", "ERROR");
+        properties.put("logging.level.com.edu", "WARN");
+        return properties;
+    }
+
+    private static List<String> queries(final String path, final int distinctQueries, final long seed)
+            throws IOException {
+        if (path != null) {
+            final List<String> lines = Files.readAllLines(Path.of(path), StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+            if (lines.isEmpty()) {
+                throw new IllegalArgumentException("No queries in " + path);
+            }
+            return lines;
+        }
+        final double[] cumulative = new double[distinctQueries];
+        double total = 0;
+        for (int rank = 0; rank < distinctQueries; rank++) {
+            total += 1 / Math.pow(rank + 1, 1.1);
+            cumulative[rank] = total;
+        }
+        final Random random = new Random(seed);
+        final List<String> bodies = new ArrayList<>(distinctQueries * 20);
+        for (int i = 0; i < distinctQueries * 20; i++) {
+            final double draw = random.nextDouble() * total;
+            int rank = 0;
+            while (cumulative[rank] < draw) {
+                rank++;
+            }
+            final Map<String, String> filters = rank % 3 == 0 ? Map.of("category", "category-" + rank % 12) : Map.of();
+            bodies.add(OBJECT_MAPPER.writer().without(SerializationFeature.INDENT_OUTPUT)
+                    .writeValueAsString(new ComplexQueryRequestModel("smartphone model " + rank, filters, null)));
+        }
+        return bodies;
+    }
+
+    private static Map<String, Object> report(final Map<String, String> options, final List<String> salemArgs,
+                                              final OpenLoopDriver.Result result, final long backendSearches,
+                                              final MeterRegistry meterRegistry) {
+        final Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", result.percentileMillis(50));
+        latency.put("p90", result.percentileMillis(90));
+        latency.put("p99", result.percentileMillis(99));
+        latency.put("p999", result.percentileMillis(99.9));
+        latency.put("max", result.latencies().getMaxValue() / 1000.0);
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options);
+        report.put("salemArgs", salemArgs);
+        report.put("completed", result.completed());
+        report.put("abandoned", result.abandoned());
+        report.put("throughputPerSecond", result.throughput());
+        report.put("latencyMillis", latency);
+        report.put("outcomes", result.outcomes());
+        report.put("backendSearchesPerRequest", result.completed() == 0 ? 0 : (double) backendSearches / result.completed());
+        report.put("cacheHitRatio", cacheHitRatio(meterRegistry));
+        return report;
+    }
+
+    private static Double cacheHitRatio(final MeterRegistry meterRegistry) {
+        final double localHits = cacheGets(meterRegistry, "hit", "l1");
+        final double localMisses = cacheGets(meterRegistry, "miss", "l1");
+        final double remoteHits = cacheGets(meterRegistry, "hit", "l2");
+        final double remoteMisses = cacheGets(meterRegistry, "miss", "l2");
+        final double lookups = localHits + localMisses > 0 ? localHits + localMisses : remoteHits + remoteMisses;
+        return lookups == 0 ? null : (localHits + remoteHits) / lookups;
+    }
+
+    private static double cacheGets(final MeterRegistry meterRegistry, final String result, final String tier) {
+        return meterRegistry.find("cache.gets")
+                .tags("cache", "complexQuery", "result", result, "tier", tier)
+                .meters().stream()
+                .mapToDouble(meter -> meter instanceof FunctionCounter counter ? counter.count() : 0)
+                .sum();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.edu.salem.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+final class OpenLoopDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Duration requestTimeout;
+
+    OpenLoopDriver(final Duration requestTimeout) {
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "load-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.requestTimeout = requestTimeout;
+    }
+
+    Result run(final URI target, final List<String> bodies, final double rate,
+               final Duration warmup, final Duration duration) throws InterruptedException {
+        final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        final AtomicLong outstanding = new AtomicLong();
+        final long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        final long start = System.nanoTime();
+        final long measureFrom = start + warmup.toNanos();
+        final long end = measureFrom + duration.toNanos();
+
+        long sent = 0;
+        for (long intended = start; intended < end; intended = next(intended, start, measureFrom, intervalNanos)) {
+            final long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            final long intendedStart = intended;
+            final boolean measured = intended >= measureFrom;
+            final HttpRequest request = HttpRequest.newBuilder(target)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(bodies.get((int) (sent++ % bodies.size()))))
+                    .build();
+            outstanding.incrementAndGet();
+            final CompletableFuture<HttpResponse<Void>> response =
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            response.whenComplete((result, throwable) -> {
+                if (measured) {
+                    latencies.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS,
+                            TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart)));
+                    final String outcome = throwable == null
+                            ? String.valueOf(result.statusCode())
+                            : throwable.getClass().getSimpleName();
+                    outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+                }
+                outstanding.decrementAndGet();
+            });
+        }
+
+        final long drainDeadline = System.nanoTime() + requestTimeout.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        final Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return new Result(latencies, counts, duration, outstanding.get());
+    }
+
+    // Warmup ramps linearly from a tenth of the target rate so a cold JVM does not trip the breaker before measuring
+    private static long next(final long intended, final long start, final long measureFrom, final long intervalNanos) {
+        if (intended >= measureFrom) {
+            return intended + intervalNanos;
+        }
+        final double progress = Math.max(0.1, (double) (intended - start) / (measureFrom - start));
+        return intended + (long) (intervalNanos / progress);
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    record Result(Histogram latencies, Map<String, Long> outcomes, Duration duration, long abandoned) {
+
+        long completed() {
+            return latencies.getTotalCount();
+        }
+
+        double throughput() {
+            return completed() / (duration.toMillis() / 1000.0);
+        }
+
+        double percentileMillis(final double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.edu.salem.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+final class OpenSearchStub implements AutoCloseable {
+
+    private static final byte[] INFO = ("{\"name\":\"salem-stub\",\"cluster_name\":\"salem-stub\","
+            + "\"version\":{\"distribution\":\"opensearch\",\"number\":\"2.14.0\"},\"tagline\":\"stub\"}")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] POINT_IN_TIME = "{\"pit_id\":\"salem-stub-pit\",\"creation_time\":0}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ACKNOWLEDGED = "{\"acknowledged\":true}".getBytes(StandardCharsets.UTF_8);
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private static final Pattern SIZE_ZERO = Pattern.compile("\"size\"\\s*:\\s*0\\b");
+    private final byte[] searchResponse;
+    private final byte[] aggregationResponse;
+    private final byte[] multiSearchResponse;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final AtomicLong searches = new AtomicLong();
+
+    OpenSearchStub(final byte[] searchResponse, final long latencyMillis, final long jitterMillis) throws IOException {
+        this.searchResponse = searchResponse;
+        this.aggregationResponse = withoutHits(searchResponse);
+        this.multiSearchResponse = ("{\"took\":1,\"responses\":["
+                + new String(searchResponse, StandardCharsets.UTF_8) + ","
+                + new String(aggregationResponse, StandardCharsets.UTF_8) + "]}")
+                .getBytes(StandardCharsets.UTF_8);
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "opensearch-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    long searches() {
+        return searches.get();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final String request = readBody(exchange);
+            final String path = exchange.getRequestURI().getPath();
+            final byte[] body;
+            if (path.endsWith("/_search/point_in_time")) {
+                body = "DELETE".equals(exchange.getRequestMethod()) ? ACKNOWLEDGED : POINT_IN_TIME;
+            } else if (path.endsWith("/_msearch")) {
+                searches.incrementAndGet();
+                body = multiSearchResponse;
+            } else if (path.endsWith("/_search") || path.endsWith("/_search/template")) {
+                searches.incrementAndGet();
+                // Facet legs ask for size 0 and are parsed without a document type, like a real cluster they get no hits
+                body = SIZE_ZERO.matcher(request).find() ? aggregationResponse : searchResponse;
+            } else if (path.startsWith("/_scripts/")) {
+                body = ACKNOWLEDGED;
+            } else {
+                body = INFO;
+            }
+            pause();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        }
+    }
+
+    private static String readBody(final HttpExchange exchange) throws IOException {
+        final InputStream body = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                ? new GZIPInputStream(exchange.getRequestBody())
+                : exchange.getRequestBody();
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] withoutHits(final byte[] searchResponse) throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final ObjectNode response = (ObjectNode) objectMapper.readTree(searchResponse);
+        if (response.get("hits") instanceof ObjectNode hits) {
+            hits.putArray("hits");
+        }
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private void pause() {
+        final long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,46 @@
+package com.edu.salem.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+final class RecordedResponses {
+
+    private RecordedResponses() {
+    }
+
+    static byte[] search(final String path, final int hits, final int buckets) throws IOException {
+        if (path != null) {
+            return Files.readAllBytes(Path.of(path));
+        }
+        final StringBuilder json = new StringBuilder(256 + hits * 256 + buckets * 96)
+                .append("{\"took\":7,\"timed_out\":false,")
+                .append("\"_shards\":{\"total\":3,\"successful\":3,\"skipped\":0,\"failed\":0},")
+                .append("\"hits\":{\"total\":{\"value\":12345,\"relation\":\"eq\"},\"max_score\":null,\"hits\":[");
+        for (int i = 0; i < hits; i++) {
+            final String id = "MLB" + (1_000_000 + i);
+            final double score = 25.0 - i * 0.01;
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"_index\":\"products\",\"_id\":\"").append(id).append("\",\"_score\":").append(score)
+                    .append(",\"_source\":{\"id\":\"").append(id)
+                    .append("\",\"title\":\"Smartphone Acme Model ").append(i).append(" 128GB Dual Chip Black\"")
+                    .append(",\"category\":\"category-").append(i % 12)
+                    .append("\",\"entity\":\"acme-").append(i % 40).append("\"}")
+                    .append(",\"sort\":[").append(score).append(",\"").append(id).append("\"]}");
+        }
+        json.append("]},\"aggregations\":{");
+        for (String field : new String[]{"category", "entity"}) {
+            json.append("category".equals(field) ? "" : ",")
+                    .append("\"sterms#").append(field)
+                    .append("\":{\"doc_count_error_upper_bound\":0,\"sum_other_doc_count\":4321,\"buckets\":[");
+            for (int i = 0; i < buckets; i++) {
+                json.append(i == 0 ? "" : ",")
+                        .append("{\"key\":\"").append(field).append('-').append(i)
+                        .append("\",\"doc_count\":").append(10_000 - i).append('}');
+            }
+            json.append("]}");
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,6 @@
+package com.edu.salem.cache;
+
+public enum CacheCodec {
+    JACKSON,
+    BINARY
+}
@@ -0,0 +1,33 @@
+package com.edu.salem.cache;
+
+import java.io.Serializable;
+
+public class CacheEntry implements Serializable {
+
+    private Object value;
+    private long writtenAt;
+
+    public CacheEntry() {
+    }
+
+    public CacheEntry(Object value, long writtenAt) {
+        this.value = value;
+        this.writtenAt = writtenAt;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public void setValue(Object value) {
+        this.value = value;
+    }
+
+    public long getWrittenAt() {
+        return writtenAt;
+    }
+
+    public void setWrittenAt(long writtenAt) {
+        this.writtenAt = writtenAt;
+    }
+}
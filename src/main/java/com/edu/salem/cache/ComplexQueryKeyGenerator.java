@@ -0,0 +1,48 @@
+package com.edu.salem.cache;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.service.RetrievalMode;
+import com.edu.salem.service.metrics.SearchMetrics;
+import com.edu.salem.service.metrics.SearchMetrics.Stage;
+import com.edu.salem.service.query.QueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+@Component("complexQueryKeyGenerator")
+public class ComplexQueryKeyGenerator implements KeyGenerator {
+
+    private final SearchMetrics searchMetrics;
+    private final QueryBuilder queryBuilder;
+    private final RetrievalMode retrievalMode;
+
+    public ComplexQueryKeyGenerator(final SearchMetrics searchMetrics,
+                                    final QueryBuilder queryBuilder,
+                                    @Value("${management.service.search.vector.retrieval:LEXICAL}") final RetrievalMode retrievalMode) {
+        this.searchMetrics = searchMetrics;
+        this.queryBuilder = queryBuilder;
+        this.retrievalMode = retrievalMode;
+    }
+
+    public String key(final ComplexQueryRequestModel complexQueryRequestModel) {
+        return ComplexQueryKeys.hash(complexQueryRequestModel, retrievalMode,
+                queryBuilder.getQuerySettings().getVersion());
+    }
+
+    public String facetKey(final ComplexQueryRequestModel complexQueryRequestModel) {
+        return ComplexQueryKeys.facetHash(complexQueryRequestModel, queryBuilder.getQuerySettings().getVersion());
+    }
+
+    @Override
+    @NonNull
+    public Object generate(@NonNull Object target, @NonNull Method method, @NonNull Object... params) {
+        if (params.length == 1 && params[0] instanceof ComplexQueryRequestModel complexQueryRequestModel) {
+            return searchMetrics.record(Stage.KEY, () -> key(complexQueryRequestModel));
+        }
+        return SimpleKeyGenerator.generateKey(params);
+    }
+}
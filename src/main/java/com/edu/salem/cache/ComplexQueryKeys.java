@@ -0,0 +1,87 @@
+package com.edu.salem.cache;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.service.RetrievalMode;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+public final class ComplexQueryKeys {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final char SEPARATOR = '\u001F';
+
+    private ComplexQueryKeys() {
+    }
+
+    public static String normalizeQueryTerm(final String queryTerm) {
+        if (queryTerm == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(queryTerm.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    public static Map<String, String> normalizeFilters(final Map<String, String> filters) {
+        final Map<String, String> normalized = new TreeMap<>();
+        if (filters != null) {
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                if (filter.getKey() != null && filter.getValue() != null) {
+                    normalized.put(filter.getKey(), filter.getValue());
+                }
+            }
+        }
+        return normalized;
+    }
+
+    public static String canonicalForm(final ComplexQueryRequestModel complexQueryRequestModel,
+                                       final RetrievalMode retrievalMode,
+                                       final String settingsVersion) {
+        return matchingForm(complexQueryRequestModel, settingsVersion)
+                .append(SEPARATOR).append(complexQueryRequestModel.getOrder())
+                .append(SEPARATOR).append(complexQueryRequestModel.getSize())
+                .append(SEPARATOR).append(complexQueryRequestModel.getFrom())
+                .append(SEPARATOR).append(complexQueryRequestModel.getCursor())
+                .append(SEPARATOR).append(Boolean.TRUE.equals(complexQueryRequestModel.getExactHits()))
+                .append(SEPARATOR).append(retrievalMode)
+                .toString();
+    }
+
+    public static String facetCanonicalForm(final ComplexQueryRequestModel complexQueryRequestModel,
+                                            final String settingsVersion) {
+        return matchingForm(complexQueryRequestModel, settingsVersion).toString();
+    }
+
+    public static String hash(final ComplexQueryRequestModel complexQueryRequestModel,
+                              final RetrievalMode retrievalMode,
+                              final String settingsVersion) {
+        return hash(canonicalForm(complexQueryRequestModel, retrievalMode, settingsVersion));
+    }
+
+    public static String facetHash(final ComplexQueryRequestModel complexQueryRequestModel,
+                                   final String settingsVersion) {
+        return hash(facetCanonicalForm(complexQueryRequestModel, settingsVersion));
+    }
+
+    private static StringBuilder matchingForm(final ComplexQueryRequestModel complexQueryRequestModel,
+                                              final String settingsVersion) {
+        final StringBuilder builder = new StringBuilder(64)
+                .append(settingsVersion)
+                .append(SEPARATOR).append(normalizeQueryTerm(complexQueryRequestModel.getQueryTerm()));
+        for (Map.Entry<String, String> filter : normalizeFilters(complexQueryRequestModel.getFilters()).entrySet()) {
+            builder.append(SEPARATOR).append(filter.getKey()).append('=').append(filter.getValue());
+        }
+        return builder;
+    }
+
+    private static String hash(final String canonicalForm) {
+        final byte[] canonical = canonicalForm.getBytes(StandardCharsets.UTF_8);
+        final long[] murmur = MurmurHash3.hash128x64(canonical);
+        return Hex.encodeHexString(ByteBuffer.allocate(16).putLong(murmur[0]).putLong(murmur[1]).array());
+    }
+}
@@ -0,0 +1,241 @@
+package com.edu.salem.cache;
+
+import com.edu.salem.model.PaginationModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SearchResponseCodec implements RedisSerializer<Object> {
+
+    private static final byte FORMAT_DELEGATE = 0;
+    private static final byte FORMAT_SEARCH_RESPONSE = 4;
+    private static final byte FORMAT_ENTRY = 2;
+    private static final byte FORMAT_MASK = 0x7F;
+    private static final byte FLAG_LZ4 = (byte) 0x80;
+    private static final int ABSENT = -1;
+
+    private final RedisSerializer<Object> delegate;
+    private final int compressionThresholdBytes;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public SearchResponseCodec(final RedisSerializer<Object> delegate, final int compressionThresholdBytes) {
+        final LZ4Factory lz4Factory = LZ4Factory.fastestInstance();
+        this.delegate = delegate;
+        this.compressionThresholdBytes = compressionThresholdBytes;
+        this.compressor = lz4Factory.fastCompressor();
+        this.decompressor = lz4Factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof CacheEntry entry) {
+            final byte[] inner = serialize(entry.getValue());
+            return ByteBuffer.allocate(1 + Long.BYTES + inner.length)
+                    .put(FORMAT_ENTRY)
+                    .putLong(entry.getWrittenAt())
+                    .put(inner)
+                    .array();
+        }
+        if (!(value instanceof SearchResponseModel searchResponseModel)) {
+            final byte[] delegated = delegate.serialize(value);
+            final byte[] framed = new byte[delegated.length + 1];
+            framed[0] = FORMAT_DELEGATE;
+            System.arraycopy(delegated, 0, framed, 1, delegated.length);
+            return framed;
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_SEARCH_RESPONSE);
+            writeSearchResponse(out, searchResponseModel);
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode search response", e);
+        }
+        return compress(bytes.toByteArray());
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == FORMAT_ENTRY) {
+            final long writtenAt = ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+            final Object value = deserialize(Arrays.copyOfRange(bytes, 1 + Long.BYTES, bytes.length));
+            return value != null ? new CacheEntry(value, writtenAt) : null;
+        }
+        final byte[] payload = (bytes[0] & FLAG_LZ4) != 0 ? decompress(bytes) : bytes;
+        switch (payload[0] & FORMAT_MASK) {
+            case FORMAT_DELEGATE:
+                return delegate.deserialize(Arrays.copyOfRange(payload, 1, payload.length));
+            case FORMAT_SEARCH_RESPONSE:
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1))) {
+                    return readSearchResponse(in);
+                } catch (IOException e) {
+                    throw new SerializationException("Could not decode search response", e);
+                }
+            default:
+                return null;
+        }
+    }
+
+    private byte[] compress(final byte[] raw) {
+        if (compressionThresholdBytes < 0 || raw.length < compressionThresholdBytes) {
+            return raw;
+        }
+        final int maxLength = compressor.maxCompressedLength(raw.length - 1);
+        final ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES + maxLength);
+        buffer.put((byte) (raw[0] | FLAG_LZ4)).putInt(raw.length - 1);
+        final int compressedLength = compressor.compress(raw, 1, raw.length - 1,
+                buffer.array(), 1 + Integer.BYTES, maxLength);
+        return Arrays.copyOf(buffer.array(), 1 + Integer.BYTES + compressedLength);
+    }
+
+    private byte[] decompress(final byte[] bytes) {
+        final int rawLength = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+        final byte[] raw = new byte[rawLength + 1];
+        raw[0] = (byte) (bytes[0] & FORMAT_MASK);
+        decompressor.decompress(bytes, 1 + Integer.BYTES, raw, 1, rawLength);
+        return raw;
+    }
+
+    private static void writeSearchResponse(final DataOutputStream out, final SearchResponseModel searchResponseModel)
+            throws IOException {
+        writeLong(out, searchResponseModel.getHits());
+        out.writeBoolean(searchResponseModel.isExact());
+
+        final List<Product> products = searchResponseModel.getProducts();
+        out.writeInt(products != null ? products.size() : ABSENT);
+        if (products != null) {
+            for (Product product : products) {
+                writeString(out, product.getId());
+                writeString(out, product.getTitle());
+                writeString(out, product.getCategory());
+                writeString(out, product.getEntity());
+            }
+        }
+
+        final Map<String, Map<String, Long>> filters = searchResponseModel.getFilters();
+        out.writeInt(filters != null ? filters.size() : ABSENT);
+        if (filters != null) {
+            for (Map.Entry<String, Map<String, Long>> filter : filters.entrySet()) {
+                writeString(out, filter.getKey());
+                out.writeInt(filter.getValue().size());
+                for (Map.Entry<String, Long> bucket : filter.getValue().entrySet()) {
+                    writeString(out, bucket.getKey());
+                    out.writeLong(bucket.getValue());
+                }
+            }
+        }
+
+        final PaginationModel pagination = searchResponseModel.getPagination();
+        out.writeBoolean(pagination != null);
+        if (pagination != null) {
+            writeInteger(out, pagination.getSize());
+            writeInteger(out, pagination.getFrom());
+            writeString(out, pagination.getCursor());
+        }
+    }
+
+    private static SearchResponseModel readSearchResponse(final DataInputStream in) throws IOException {
+        final Long hits = readLong(in);
+        final boolean exact = in.readBoolean();
+
+        final int productCount = in.readInt();
+        List<Product> products = null;
+        if (productCount != ABSENT) {
+            products = new ArrayList<>(productCount);
+            for (int i = 0; i < productCount; i++) {
+                products.add(new Product(readString(in), readString(in), readString(in), readString(in)));
+            }
+        }
+
+        final int filterCount = in.readInt();
+        Map<String, Map<String, Long>> filters = null;
+        if (filterCount != ABSENT) {
+            filters = new HashMap<>(filterCount * 2);
+            for (int i = 0; i < filterCount; i++) {
+                final String filterName = readString(in);
+                final int bucketCount = in.readInt();
+                final Map<String, Long> buckets = new HashMap<>(bucketCount * 2);
+                for (int j = 0; j < bucketCount; j++) {
+                    buckets.put(readString(in), in.readLong());
+                }
+                filters.put(filterName, buckets);
+            }
+        }
+
+        PaginationModel pagination = null;
+        if (in.readBoolean()) {
+            pagination = new PaginationModel(readInteger(in), readInteger(in), readString(in));
+        }
+
+        return new SearchResponseModel.Builder(hits, products, filters)
+                .setPaginationModel(pagination)
+                .setExact(exact)
+                .build();
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(ABSENT);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length == ABSENT) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(final DataOutputStream out, final Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInteger(final DataOutputStream out, final Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+}
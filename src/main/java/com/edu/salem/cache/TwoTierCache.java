@@ -0,0 +1,261 @@
+package com.edu.salem.cache;
+
+import io.micrometer.core.instrument.Timer;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class TwoTierCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, CacheEntry> localCache;
+    private final Cache remoteCache;
+    private final long ttlMillis;
+    private final RedissonClient redissonClient;
+    private final long lockWaitMillis;
+    private final long lockLeaseMillis;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private volatile Timer localLookupTimer;
+    private volatile Timer remoteLookupTimer;
+
+    public TwoTierCache(final String name,
+                        @Nullable final com.github.benmanes.caffeine.cache.Cache<Object, CacheEntry> localCache,
+                        final Cache remoteCache,
+                        final Duration ttl,
+                        @Nullable final RedissonClient redissonClient,
+                        final long lockWaitMillis,
+                        final long lockLeaseMillis,
+                        final Executor refreshExecutor) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.ttlMillis = ttl.toMillis();
+        this.redissonClient = redissonClient;
+        this.lockWaitMillis = lockWaitMillis;
+        this.lockLeaseMillis = lockLeaseMillis;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Nullable
+    public com.github.benmanes.caffeine.cache.Cache<Object, CacheEntry> getLocalCache() {
+        return localCache;
+    }
+
+    public Cache getRemoteCache() {
+        return remoteCache;
+    }
+
+    void bindLookupTimers(@Nullable final Timer localLookupTimer, @Nullable final Timer remoteLookupTimer) {
+        this.localLookupTimer = localLookupTimer;
+        this.remoteLookupTimer = remoteLookupTimer;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(@NonNull Object key) {
+        final CacheEntry entry = lookup(key);
+        return entry != null && isFresh(entry) ? new SimpleValueWrapper(entry.getValue()) : null;
+    }
+
+    @Nullable
+    public ValueWrapper getStale(@NonNull Object key) {
+        final CacheEntry entry = lookup(key);
+        return entry != null ? new SimpleValueWrapper(entry.getValue()) : null;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        final ValueWrapper valueWrapper = get(key);
+        final Object value = valueWrapper != null ? valueWrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        final CacheEntry entry = lookup(key);
+        if (entry != null) {
+            if (!isFresh(entry)) {
+                refreshAsync(key, valueLoader);
+            }
+            return (T) entry.getValue();
+        }
+        try {
+            return (T) singleFlight(key, valueLoader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        if (value == null) {
+            return;
+        }
+        final CacheEntry entry = new CacheEntry(value, System.currentTimeMillis());
+        if (localCache != null) {
+            localCache.put(key, entry);
+        }
+        remoteCache.put(key, entry);
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        if (localCache != null) {
+            localCache.invalidate(key);
+        }
+        remoteCache.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        if (localCache != null) {
+            localCache.invalidateAll();
+        }
+        remoteCache.clear();
+    }
+
+    private CacheEntry lookup(final Object key) {
+        if (localCache != null) {
+            final long start = System.nanoTime();
+            final CacheEntry localEntry = localCache.getIfPresent(key);
+            record(localLookupTimer, start);
+            if (localEntry != null) {
+                return localEntry;
+            }
+        }
+        return remoteLookup(key);
+    }
+
+    private CacheEntry remoteLookup(final Object key) {
+        final long start = System.nanoTime();
+        final ValueWrapper remoteValue = remoteCache.get(key);
+        record(remoteLookupTimer, start);
+        if (remoteValue != null && remoteValue.get() instanceof CacheEntry remoteEntry) {
+            if (localCache != null && isFresh(remoteEntry)) {
+                localCache.put(key, remoteEntry);
+            }
+            return remoteEntry;
+        }
+        return null;
+    }
+
+    private static void record(@Nullable final Timer timer, final long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean isFresh(final CacheEntry entry) {
+        return System.currentTimeMillis() - entry.getWrittenAt() < ttlMillis;
+    }
+
+    private CompletableFuture<Object> singleFlight(final Object key, final Callable<?> valueLoader) {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            future.complete(loadWithLock(key, valueLoader));
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+        } finally {
+            inFlight.remove(key, future);
+        }
+        return future;
+    }
+
+    private void refreshAsync(final Object key, final Callable<?> valueLoader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> singleFlight(key, valueLoader).whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    logger.warn("Background refresh of {}::{} failed", name, key, throwable);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Background refresh of {}::{} rejected", name, key);
+        }
+    }
+
+    private Object loadWithLock(final Object key, final Callable<?> valueLoader) {
+        if (redissonClient == null) {
+            return loadAndPut(key, valueLoader);
+        }
+
+        final RLock lock = redissonClient.getLock(name + "::" + key + ":lock");
+        boolean locked = false;
+        try {
+            try {
+                locked = lock.tryLock(lockWaitMillis, lockLeaseMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("Could not coordinate load of {}::{} across instances", name, key, e);
+            }
+
+            final CacheEntry entry = remoteLookup(key);
+            if (entry != null && isFresh(entry)) {
+                return entry.getValue();
+            }
+            return loadAndPut(key, valueLoader);
+        } finally {
+            if (locked && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Object loadAndPut(final Object key, final Callable<?> valueLoader) {
+        final Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+}
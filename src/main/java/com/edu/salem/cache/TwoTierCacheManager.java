@@ -0,0 +1,119 @@
+package com.edu.salem.cache;
+
+import com.edu.salem.model.SearchResponseModel;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.redisson.api.RedissonClient;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final Duration ttl;
+    private final boolean localCacheEnabled;
+    private final long localMaximumWeight;
+    private final Duration localTtl;
+    private final RedissonClient redissonClient;
+    private final long lockWaitMillis;
+    private final long lockLeaseMillis;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private TwoTierCacheManager(Builder builder) {
+        this.remoteCacheManager = builder.remoteCacheManager;
+        this.ttl = builder.ttl;
+        this.localCacheEnabled = builder.localCacheEnabled;
+        this.localMaximumWeight = builder.localMaximumWeight;
+        this.localTtl = builder.localTtl;
+        this.redissonClient = builder.redissonClient;
+        this.lockWaitMillis = builder.lockWaitMillis;
+        this.lockLeaseMillis = builder.lockLeaseMillis;
+        this.refreshExecutor = builder.refreshExecutor;
+        builder.initialCacheNames.forEach(this::getCache);
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(@NonNull String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoTierCache createCache(final String name) {
+        com.github.benmanes.caffeine.cache.Cache<Object, CacheEntry> localCache = null;
+        if (localCacheEnabled) {
+            localCache = Caffeine.newBuilder()
+                    .maximumWeight(localMaximumWeight)
+                    .weigher(TwoTierCacheManager::weigh)
+                    .expireAfterWrite(localTtl)
+                    .recordStats()
+                    .build();
+        }
+        return new TwoTierCache(name, localCache, remoteCacheManager.getCache(name), ttl,
+                redissonClient, lockWaitMillis, lockLeaseMillis, refreshExecutor);
+    }
+
+    private static int weigh(final Object key, final CacheEntry entry) {
+        if (entry.getValue() instanceof SearchResponseModel searchResponseModel && searchResponseModel.getProducts() != null) {
+            return 1 + searchResponseModel.getProducts().size();
+        }
+        return 1;
+    }
+
+    public static class Builder {
+        private final CacheManager remoteCacheManager;
+        private final Duration ttl;
+        private final Executor refreshExecutor;
+        private boolean localCacheEnabled;
+        private long localMaximumWeight;
+        private Duration localTtl;
+        private RedissonClient redissonClient;
+        private long lockWaitMillis;
+        private long lockLeaseMillis;
+        private Collection<String> initialCacheNames = List.of();
+
+        public Builder(CacheManager remoteCacheManager, Duration ttl, Executor refreshExecutor) {
+            this.remoteCacheManager = remoteCacheManager;
+            this.ttl = ttl;
+            this.refreshExecutor = refreshExecutor;
+        }
+
+        public Builder setLocalCache(long maximumWeight, Duration ttl) {
+            this.localCacheEnabled = true;
+            this.localMaximumWeight = maximumWeight;
+            this.localTtl = ttl;
+            return this;
+        }
+
+        public Builder setDistributedLock(RedissonClient redissonClient, long lockWaitMillis, long lockLeaseMillis) {
+            this.redissonClient = redissonClient;
+            this.lockWaitMillis = lockWaitMillis;
+            this.lockLeaseMillis = lockLeaseMillis;
+            return this;
+        }
+
+        public Builder setInitialCacheNames(Collection<String> initialCacheNames) {
+            this.initialCacheNames = initialCacheNames;
+            return this;
+        }
+
+        public TwoTierCacheManager build() {
+            return new TwoTierCacheManager(this);
+        }
+    }
+}
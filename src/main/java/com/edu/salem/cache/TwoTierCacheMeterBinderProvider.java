@@ -0,0 +1,37 @@
+package com.edu.salem.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.data.redis.cache.RedisCache;
+
+public class TwoTierCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoTierCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoTierCache cache, Iterable<Tag> tags) {
+        return registry -> {
+            if (cache.getLocalCache() != null) {
+                new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), Tags.concat(tags, "tier", "l1"))
+                        .bindTo(registry);
+            }
+            if (cache.getRemoteCache() instanceof RedisCache redisCache) {
+                new RedisCacheMetrics(redisCache, Tags.concat(tags, "tier", "l2")).bindTo(registry);
+            }
+            cache.bindLookupTimers(cache.getLocalCache() != null ? lookupTimer(cache, tags, "l1", registry) : null,
+                    lookupTimer(cache, tags, "l2", registry));
+        };
+    }
+
+    private static Timer lookupTimer(TwoTierCache cache, Iterable<Tag> tags, String tier, MeterRegistry registry) {
+        return Timer.builder("cache.lookup")
+                .description("Time to look up an entry in one tier of the cache")
+                .tags(tags)
+                .tags("cache", cache.getName(), "tier", tier)
+                .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.edu.salem.config;
+
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.metrics.SearchMetrics;
+import com.edu.salem.service.metrics.SearchMetrics.Stage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(final ObjectMapper objectMapper,
+                                                                                   final SearchMetrics searchMetrics) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(@NonNull Object object, @Nullable Type type,
+                                         @NonNull HttpOutputMessage outputMessage) throws IOException {
+                if (!(object instanceof SearchResponseModel)) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                final long start = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    searchMetrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.edu.salem.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.opensearch.client.NodeSelector;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.RestClientBuilder;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.sniff.OpenSearchNodesSniffer;
+import org.opensearch.client.sniff.SniffOnFailureListener;
+import org.opensearch.client.sniff.Sniffer;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.opensearch.client.transport.rest_client.RestClientTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+@Configuration
+public class OpenSearchConfig {
+
+    private static final int DEFAULT_PORT = 9200;
+
+    @Value("${management.data.openSearch.host}")
+    private String host;
+
+    @Value("${management.data.openSearch.port:}")
+    private String port;
+
+    @Value("${management.data.openSearch.hosts:}")
+    private String hosts;
+
+    @Value("${management.data.openSearch.scheme:http}")
+    private String scheme;
+
+    @Value("${management.data.openSearch.user}")
+    private String user;
+
+    @Value("${management.data.openSearch.password}")
+    private String password;
+
+    @Value("${management.data.openSearch.transport.maxConnTotal:200}")
+    private int maxConnTotal;
+
+    @Value("${management.data.openSearch.transport.maxConnPerRoute:100}")
+    private int maxConnPerRoute;
+
+    @Value("${management.data.openSearch.transport.connectTimeoutMillis:1000}")
+    private int connectTimeoutMillis;
+
+    @Value("${management.data.openSearch.transport.socketTimeoutMillis:5000}")
+    private int socketTimeoutMillis;
+
+    @Value("${management.data.openSearch.transport.connectionRequestTimeoutMillis:500}")
+    private int connectionRequestTimeoutMillis;
+
+    @Value("${management.data.openSearch.transport.keepAliveMillis:60000}")
+    private long keepAliveMillis;
+
+    @Value("${management.data.openSearch.transport.compression:true}")
+    private boolean compression;
+
+    @Value("${management.data.openSearch.transport.skipDedicatedClusterManagers:true}")
+    private boolean skipDedicatedClusterManagers;
+
+    @Value("${management.data.openSearch.transport.sniff.enabled:false}")
+    private boolean sniffEnabled;
+
+    @Value("${management.data.openSearch.transport.sniff.intervalMillis:300000}")
+    private int sniffIntervalMillis;
+
+    @Value("${management.data.openSearch.transport.sniff.afterFailureDelayMillis:60000}")
+    private int sniffAfterFailureDelayMillis;
+
+    private final SniffOnFailureListener sniffOnFailureListener = new SniffOnFailureListener();
+
+    @Bean(destroyMethod = "close")
+    public RestClient openSearchRestClient() {
+        final HttpHost[] httpHosts = httpHosts();
+        final BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user, password));
+
+        final RestClientBuilder builder = RestClient.builder(httpHosts)
+                .setCompressionEnabled(compression)
+                .setNodeSelector(skipDedicatedClusterManagers ? NodeSelector.SKIP_DEDICATED_CLUSTER_MANAGERS : NodeSelector.ANY)
+                .setRequestConfigCallback(requestConfigBuilder -> requestConfigBuilder
+                        .setConnectTimeout(connectTimeoutMillis)
+                        .setSocketTimeout(socketTimeoutMillis)
+                        .setConnectionRequestTimeout(connectionRequestTimeoutMillis))
+                .setHttpClientConfigCallback(httpClientBuilder -> httpClientBuilder
+                        .setDefaultCredentialsProvider(credentialsProvider)
+                        .setMaxConnTotal(maxConnTotal)
+                        .setMaxConnPerRoute(maxConnPerRoute)
+                        .setKeepAliveStrategy((response, context) -> keepAliveMillis));
+        if (sniffEnabled) {
+            builder.setFailureListener(sniffOnFailureListener);
+        }
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "management.data.openSearch.transport.sniff.enabled", havingValue = "true")
+    public Sniffer openSearchSniffer(final RestClient openSearchRestClient) {
+        final Sniffer sniffer = Sniffer.builder(openSearchRestClient)
+                .setSniffIntervalMillis(sniffIntervalMillis)
+                .setSniffAfterFailureDelayMillis(sniffAfterFailureDelayMillis)
+                .setNodesSniffer(new OpenSearchNodesSniffer(openSearchRestClient,
+                        OpenSearchNodesSniffer.DEFAULT_SNIFF_REQUEST_TIMEOUT,
+                        "https".equalsIgnoreCase(scheme) ? OpenSearchNodesSniffer.Scheme.HTTPS : OpenSearchNodesSniffer.Scheme.HTTP))
+                .build();
+        sniffOnFailureListener.setSniffer(sniffer);
+        return sniffer;
+    }
+
+    @Bean
+    public OpenSearchTransport openSearchTransport(final RestClient openSearchRestClient) {
+        return new RestClientTransport(openSearchRestClient, new JacksonJsonpMapper());
+    }
+
+    @Bean
+    public OpenSearchAsyncClient openSearchAsyncClient(final OpenSearchTransport openSearchTransport) {
+        return new OpenSearchAsyncClient(openSearchTransport);
+    }
+
+    private HttpHost[] httpHosts() {
+        final String hostList = hosts.isBlank() ? host + ":" + (port.isBlank() ? DEFAULT_PORT : port) : hosts;
+        return Arrays.stream(hostList.split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .map(address -> {
+                    final int separator = address.lastIndexOf(':');
+                    return separator < 0
+                            ? new HttpHost(address, DEFAULT_PORT, scheme)
+                            : new HttpHost(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)), scheme);
+                })
+                .toArray(HttpHost[]::new);
+    }
+}
@@ -0,0 +1,30 @@
+package com.edu.salem.config;
+
+import com.edu.salem.service.query.QuerySettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryConfig {
+
+    @Value("${management.service.searchableFields:title, entity}")
+    private String searchableFields;
+
+    @Value("${management.service.aggregationFields:category, entity}")
+    private String aggregationFields;
+
+    @Value("${management.service.facets.size:0}")
+    private int facetSize;
+
+    @Value("${management.service.facets.shardSize:0}")
+    private int facetShardSize;
+
+    @Value("${management.service.facets.executionHint:}")
+    private String facetExecutionHint;
+
+    @Bean
+    public QuerySettings querySettings() {
+        return QuerySettings.parse(searchableFields, aggregationFields, facetSize, facetShardSize, facetExecutionHint);
+    }
+}
@@ -1,18 +1,25 @@
 package com.edu.salem.config;
 
+import com.edu.salem.cache.CacheCodec;
+import com.edu.salem.cache.SearchResponseCodec;
+import com.edu.salem.cache.TwoTierCacheManager;
+import com.edu.salem.cache.TwoTierCacheMeterBinderProvider;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.spring.data.connection.RedissonConnectionFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -20,6 +27,9 @@ import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.springframework.data.redis.cache.RedisCacheManager.RedisCacheManagerBuilder.fromConnectionFactory;
 import static org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair.fromSerializer;
@@ -43,6 +53,36 @@ public class RedisConfig {
     @Value("${management.redis.cache.enabled:false}")
     private boolean cacheEnabled;
 
+    @Value("${management.redis.cache.codec:JACKSON}")
+    private CacheCodec cacheCodec;
+
+    @Value("${management.redis.cache.compressionThresholdBytes:-1}")
+    private int cacheCompressionThresholdBytes;
+
+    @Value("${management.redis.cache-names:complexQuery,complexQueryFacets}")
+    private List<String> cacheNames;
+
+    @Value("${management.redis.cache.staleTtlSeconds:0}")
+    private int cacheStaleTTLSeconds;
+
+    @Value("${management.redis.cache.distributedLock.enabled:false}")
+    private boolean distributedLockEnabled;
+
+    @Value("${management.redis.lockWaitTime:100}")
+    private long lockWaitTime;
+
+    @Value("${management.redis.lockLeaseTime:100}")
+    private long lockLeaseTime;
+
+    @Value("${management.redis.cache.local.enabled:true}")
+    private boolean localCacheEnabled;
+
+    @Value("${management.redis.cache.local.maximumWeight:20000}")
+    private long localCacheMaximumWeight;
+
+    @Value("${management.redis.cache.local.ttlSeconds:10}")
+    private int localCacheTTLSeconds;
+
     @Bean
     public RedissonClient initRedisson() {
         org.redisson.config.Config config = new org.redisson.config.Config();
@@ -64,7 +104,7 @@ public class RedisConfig {
         return template;
     }
 
-    private RedisSerializer<Object> redisSerializer() {
+    public static RedisSerializer<Object> redisSerializer() {
 
         ObjectMapper om = new ObjectMapper();
         om.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
@@ -74,21 +114,49 @@ public class RedisConfig {
         return jackson2JsonRedisSerializer;
     }
 
+    private RedisSerializer<Object> cacheValueSerializer() {
+        if (cacheCodec == CacheCodec.BINARY) {
+            return new SearchResponseCodec(redisSerializer(), cacheCompressionThresholdBytes);
+        }
+        return redisSerializer();
+    }
+
     private void setSerializer(StringRedisTemplate template) {
         template.setValueSerializer(redisSerializer());
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     RedissonClient redissonClient,
+                                     @Qualifier("searchExecutor") Executor searchExecutor) {
         if (cacheEnabled) {
-            return fromConnectionFactory(redisConnectionFactory)
+            final RedisCacheManager redisCacheManager = fromConnectionFactory(redisConnectionFactory)
                     .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
                             .disableCachingNullValues()
-                            .entryTtl(Duration.ofSeconds(cacheTTLSeconds))
-                            .serializeValuesWith(fromSerializer(redisSerializer())))
+                            .entryTtl(Duration.ofSeconds(cacheTTLSeconds + cacheStaleTTLSeconds))
+                            .serializeValuesWith(fromSerializer(cacheValueSerializer())))
+                    .initialCacheNames(new HashSet<>(cacheNames))
+                    .enableStatistics()
                     .build();
+            redisCacheManager.afterPropertiesSet();
+
+            final TwoTierCacheManager.Builder builder = new TwoTierCacheManager.Builder(redisCacheManager,
+                    Duration.ofSeconds(cacheTTLSeconds), searchExecutor)
+                    .setInitialCacheNames(cacheNames);
+            if (localCacheEnabled) {
+                builder.setLocalCache(localCacheMaximumWeight, Duration.ofSeconds(localCacheTTLSeconds));
+            }
+            if (distributedLockEnabled) {
+                builder.setDistributedLock(redissonClient, lockWaitTime, lockLeaseTime);
+            }
+            return builder.build();
         } else {
             return new NoOpCacheManager();
         }
     }
+
+    @Bean
+    public CacheMeterBinderProvider<?> twoTierCacheMeterBinderProvider() {
+        return new TwoTierCacheMeterBinderProvider();
+    }
 }
@@ -1,45 +1,154 @@
 package com.edu.salem.controller;
 
+import com.edu.salem.model.BatchQueryItemModel;
 import com.edu.salem.model.ComplexQueryRequestModel;
 import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.BatchSearchService;
+import com.edu.salem.service.ProductExportService;
+import com.edu.salem.service.RetrievalMode;
 import com.edu.salem.service.SearchService;
+import com.edu.salem.service.StreamingSearchService;
+import com.edu.salem.service.query.SearchCursor;
+import com.edu.salem.service.resilience.ServiceOverloadedException;
+import com.edu.salem.service.warmup.QueryLogRecorder;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 public class SearchController {
     private final SearchService searchService;
+    private final StreamingSearchService streamingSearchService;
+    private final ProductExportService productExportService;
+    private final BatchSearchService batchSearchService;
+    private final QueryLogRecorder queryLogRecorder;
+    private final RetrievalMode retrievalMode;
     private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
 
-    public SearchController(final SearchService searchService) {
+    public SearchController(final SearchService searchService,
+                            final StreamingSearchService streamingSearchService,
+                            final ProductExportService productExportService,
+                            final BatchSearchService batchSearchService,
+                            final QueryLogRecorder queryLogRecorder,
+                            @Value("${management.service.search.vector.retrieval:LEXICAL}") final RetrievalMode retrievalMode) {
         this.searchService = searchService;
+        this.streamingSearchService = streamingSearchService;
+        this.productExportService = productExportService;
+        this.batchSearchService = batchSearchService;
+        this.queryLogRecorder = queryLogRecorder;
+        this.retrievalMode = retrievalMode;
     }
 
     @PostMapping(value = "/query")
-    @Cacheable(value = "complexQuery")
     @Nullable
     public ResponseEntity<SearchResponseModel> complexQuery(
             @RequestBody final ComplexQueryRequestModel complexQueryRequestModel) {
+        if (!SearchCursor.isValid(complexQueryRequestModel.getCursor(), retrievalMode)) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        this.queryLogRecorder.record(complexQueryRequestModel);
         Optional<SearchResponseModel> optionalSearchResponse = Optional.empty();
         try {
             optionalSearchResponse = this.searchService.complexQuery(complexQueryRequestModel);
             if (optionalSearchResponse.isPresent()) {
                 return new ResponseEntity<>(optionalSearchResponse.get(), HttpStatus.OK);
             }
-        } catch (IOException e) {
-            logger.error("Error occurred.");
+        } catch (ServiceOverloadedException e) {
+            logger.warn("Shedding /query: {}", e.getCause().toString());
+            return new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error occurred.", e);
         }
 
         return new ResponseEntity<>(null, HttpStatus.NO_CONTENT);
     }
+
+    @PostMapping(value = "/query/async")
+    public CompletableFuture<ResponseEntity<SearchResponseModel>> complexQueryAsync(
+            @RequestBody final ComplexQueryRequestModel complexQueryRequestModel) {
+        if (!SearchCursor.isValid(complexQueryRequestModel.getCursor(), retrievalMode)) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(null, HttpStatus.BAD_REQUEST));
+        }
+        this.queryLogRecorder.record(complexQueryRequestModel);
+        return this.searchService.complexQueryAsync(complexQueryRequestModel)
+                .thenApply(optionalSearchResponse -> optionalSearchResponse
+                        .map(searchResponse -> new ResponseEntity<>(searchResponse, HttpStatus.OK))
+                        .orElseGet(() -> new ResponseEntity<>(null, HttpStatus.NO_CONTENT)))
+                .exceptionally(e -> {
+                    final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof ServiceOverloadedException) {
+                        logger.warn("Shedding /query/async: {}", cause.getCause().toString());
+                        return new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE);
+                    }
+                    logger.error("Error occurred.", e);
+                    return new ResponseEntity<>(null, HttpStatus.NO_CONTENT);
+                });
+    }
+
+    @PostMapping(value = "/query/batch")
+    public CompletableFuture<ResponseEntity<List<BatchQueryItemModel>>> complexQueryBatch(
+            @RequestBody final List<ComplexQueryRequestModel> complexQueryRequestModels) {
+        if (!this.batchSearchService.accepts(complexQueryRequestModels)) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(null, HttpStatus.BAD_REQUEST));
+        }
+        complexQueryRequestModels.forEach(this.queryLogRecorder::record);
+        return this.batchSearchService.complexQueryBatch(complexQueryRequestModels)
+                .thenApply(items -> new ResponseEntity<>(items, HttpStatus.OK));
+    }
+
+    @PostMapping(value = "/query/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> complexQueryStream(
+            @RequestBody final ComplexQueryRequestModel complexQueryRequestModel) {
+        if (!SearchCursor.isValid(complexQueryRequestModel.getCursor(), retrievalMode)) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(null, HttpStatus.BAD_REQUEST));
+        }
+        this.queryLogRecorder.record(complexQueryRequestModel);
+        return this.streamingSearchService.complexQueryStream(complexQueryRequestModel)
+                .thenApply(body -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .<StreamingResponseBody>body(outputStream -> {
+                            try {
+                                body.writeTo(outputStream);
+                            } catch (IOException e) {
+                                logger.error("Error occurred.", e);
+                                throw e;
+                            }
+                        }))
+                .exceptionally(e -> {
+                    final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof ServiceOverloadedException) {
+                        logger.warn("Shedding /query/stream: {}", cause.getCause().toString());
+                        return new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE);
+                    }
+                    logger.error("Error occurred.", e);
+                    return new ResponseEntity<>(null, HttpStatus.NO_CONTENT);
+                });
+    }
+
+    @PostMapping(value = "/query/export", produces = "application/x-ndjson")
+    public void export(@RequestBody final ComplexQueryRequestModel complexQueryRequestModel,
+                       final HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        try {
+            this.productExportService.export(complexQueryRequestModel, response.getOutputStream());
+        } catch (IOException e) {
+            logger.error("Error occurred.", e);
+            throw e;
+        }
+    }
 }
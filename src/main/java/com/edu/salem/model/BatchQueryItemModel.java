@@ -0,0 +1,35 @@
+package com.edu.salem.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchQueryItemModel implements Serializable {
+    private Integer status;
+    private SearchResponseModel response;
+
+    public BatchQueryItemModel() {
+    }
+
+    public BatchQueryItemModel(Integer status, SearchResponseModel response) {
+        this.status = status;
+        this.response = response;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public SearchResponseModel getResponse() {
+        return response;
+    }
+
+    public void setResponse(SearchResponseModel response) {
+        this.response = response;
+    }
+}
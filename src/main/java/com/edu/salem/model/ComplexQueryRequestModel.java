@@ -18,6 +18,10 @@ public class ComplexQueryRequestModel implements Serializable {
 
     private Integer from;
 
+    private String cursor;
+
+    private Boolean exactHits;
+
     public ComplexQueryRequestModel(String query, Map<String, String> filters, Order order) {
         this.queryTerm = query;
         this.filters = filters;
@@ -66,9 +70,25 @@ public class ComplexQueryRequestModel implements Serializable {
         this.from = from;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Boolean getExactHits() {
+        return exactHits;
+    }
+
+    public void setExactHits(Boolean exactHits) {
+        this.exactHits = exactHits;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(queryTerm, filters, order);
+        return Objects.hash(queryTerm, filters, order, size, from, cursor, exactHits);
     }
 
     @Override
@@ -76,6 +96,6 @@ public class ComplexQueryRequestModel implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ComplexQueryRequestModel that = (ComplexQueryRequestModel) o;
-        return Objects.equals(queryTerm, that.queryTerm) && Objects.equals(filters, that.filters) && order == that.order && Objects.equals(size, that.size) && Objects.equals(from, that.from);
+        return Objects.equals(queryTerm, that.queryTerm) && Objects.equals(filters, that.filters) && order == that.order && Objects.equals(size, that.size) && Objects.equals(from, that.from) && Objects.equals(cursor, that.cursor) && Objects.equals(exactHits, that.exactHits);
     }
 }
@@ -5,12 +5,22 @@ import java.io.Serializable;
 public class PaginationModel implements Serializable {
     private Integer size;
     private Integer from;
+    private String cursor;
+
+    public PaginationModel() {
+    }
 
     public PaginationModel(Integer size, Integer from) {
         this.size = size;
         this.from = from;
     }
 
+    public PaginationModel(Integer size, Integer from, String cursor) {
+        this.size = size;
+        this.from = from;
+        this.cursor = cursor;
+    }
+
     public Integer getSize() {
         return size;
     }
@@ -27,5 +37,11 @@ public class PaginationModel implements Serializable {
         this.from = from;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
 
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
 }
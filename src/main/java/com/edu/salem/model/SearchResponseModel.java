@@ -7,12 +7,17 @@ import java.util.Map;
 public class SearchResponseModel implements Serializable {
 
     private Long hits;
+    private boolean exact = true;
     private List<Product> products;
     private Map<String, Map<String, Long>> filters;
     private PaginationModel pagination;
 
+    private SearchResponseModel() {
+    }
+
     private SearchResponseModel(Builder builder) {
         this.hits = builder.hits;
+        this.exact = builder.exact;
         this.products = builder.products;
         this.filters = builder.filters;
         this.pagination = builder.pagination;
@@ -26,6 +31,14 @@ public class SearchResponseModel implements Serializable {
         this.hits = hits;
     }
 
+    public boolean isExact() {
+        return exact;
+    }
+
+    public void setExact(boolean exact) {
+        this.exact = exact;
+    }
+
     public List<Product> getProducts() {
         return products;
     }
@@ -55,6 +68,7 @@ public class SearchResponseModel implements Serializable {
         private final List<Product> products;
         private final Map<String, Map<String, Long>> filters;
         private PaginationModel pagination;
+        private boolean exact = true;
 
         public Builder(Long hits, List<Product> products, Map<String, Map<String, Long>> filters) {
             this.hits = hits;
@@ -67,6 +81,11 @@ public class SearchResponseModel implements Serializable {
             return this;
         }
 
+        public Builder setExact(boolean exact) {
+            this.exact = exact;
+            return this;
+        }
+
         public SearchResponseModel build() {
             return new SearchResponseModel(this);
         }
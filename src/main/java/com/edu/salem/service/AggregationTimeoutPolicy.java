@@ -0,0 +1,6 @@
+package com.edu.salem.service;
+
+public enum AggregationTimeoutPolicy {
+    FAIL,
+    HITS_ONLY
+}
@@ -0,0 +1,108 @@
+package com.edu.salem.service;
+
+import com.edu.salem.cache.ComplexQueryKeyGenerator;
+import com.edu.salem.model.BatchQueryItemModel;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.query.SearchCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class BatchSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchSearchService.class);
+    private static final String ERROR_OCCURRED = "Error Occurred, ";
+    private static final String COMPLEX_QUERY_CACHE = "complexQuery";
+    private final SearchService searchService;
+    private final CacheManager cacheManager;
+    private final ComplexQueryKeyGenerator complexQueryKeyGenerator;
+    private final int maxBatchSize;
+    private final RetrievalMode retrievalMode;
+
+    public BatchSearchService(final SearchService searchService,
+                              final CacheManager cacheManager,
+                              final ComplexQueryKeyGenerator complexQueryKeyGenerator,
+                              @Value("${management.service.batch.maxSize:20}") final int maxBatchSize,
+                              @Value("${management.service.search.vector.retrieval:LEXICAL}") final RetrievalMode retrievalMode) {
+        this.searchService = searchService;
+        this.cacheManager = cacheManager;
+        this.complexQueryKeyGenerator = complexQueryKeyGenerator;
+        this.maxBatchSize = maxBatchSize;
+        this.retrievalMode = retrievalMode;
+    }
+
+    public boolean accepts(final List<ComplexQueryRequestModel> complexQueryRequestModels) {
+        return complexQueryRequestModels != null
+                && !complexQueryRequestModels.isEmpty()
+                && complexQueryRequestModels.size() <= maxBatchSize;
+    }
+
+    public CompletableFuture<List<BatchQueryItemModel>> complexQueryBatch(
+            final List<ComplexQueryRequestModel> complexQueryRequestModels) {
+        final Cache cache = cacheManager.getCache(COMPLEX_QUERY_CACHE);
+        final BatchQueryItemModel[] items = new BatchQueryItemModel[complexQueryRequestModels.size()];
+        final List<Integer> missPositions = new ArrayList<>();
+        final List<ComplexQueryRequestModel> misses = new ArrayList<>();
+
+        for (int i = 0; i < items.length; i++) {
+            final ComplexQueryRequestModel complexQueryRequestModel = complexQueryRequestModels.get(i);
+            if (!SearchCursor.isValid(complexQueryRequestModel.getCursor(), retrievalMode)) {
+                items[i] = new BatchQueryItemModel(HttpStatus.BAD_REQUEST.value(), null);
+                continue;
+            }
+            final Cache.ValueWrapper cached = cache != null ? cache.get(complexQueryKeyGenerator.key(complexQueryRequestModel)) : null;
+            if (cached != null) {
+                items[i] = toItem(Optional.ofNullable((SearchResponseModel) cached.get()));
+            } else {
+                missPositions.add(i);
+                misses.add(complexQueryRequestModel);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return CompletableFuture.completedFuture(Arrays.asList(items));
+        }
+        return searchService.complexQueryBatchAsync(misses)
+                .handle((results, throwable) -> {
+                    if (throwable != null) {
+                        logger.error(ERROR_OCCURRED, throwable);
+                        final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                        final HttpStatus status = cause instanceof TimeoutException
+                                ? HttpStatus.GATEWAY_TIMEOUT
+                                : HttpStatus.BAD_GATEWAY;
+                        missPositions.forEach(position -> items[position] = new BatchQueryItemModel(status.value(), null));
+                    } else {
+                        for (int i = 0; i < missPositions.size(); i++) {
+                            final Optional<SearchResponseModel> result = results.get(i);
+                            if (result.isPresent() && cache != null) {
+                                cache.put(complexQueryKeyGenerator.key(misses.get(i)), result.get());
+                            }
+                            items[missPositions.get(i)] = result.isPresent()
+                                    ? toItem(result)
+                                    : new BatchQueryItemModel(HttpStatus.BAD_GATEWAY.value(), null);
+                        }
+                    }
+                    return Arrays.asList(items);
+                });
+    }
+
+    private static BatchQueryItemModel toItem(final Optional<SearchResponseModel> searchResponseModel) {
+        return searchResponseModel
+                .map(response -> new BatchQueryItemModel(HttpStatus.OK.value(), response))
+                .orElseGet(() -> new BatchQueryItemModel(HttpStatus.NO_CONTENT.value(), null));
+    }
+}
@@ -1,134 +1,770 @@
 package com.edu.salem.service;
 
 
+import com.edu.salem.cache.ComplexQueryKeyGenerator;
+import com.edu.salem.cache.TwoTierCache;
 import com.edu.salem.model.ComplexQueryRequestModel;
 import com.edu.salem.model.Product;
 import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.metrics.SearchMetrics;
+import com.edu.salem.service.metrics.SearchMetrics.Fallback;
+import com.edu.salem.service.metrics.SearchMetrics.Stage;
 import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.SearchCursor;
+import com.edu.salem.service.query.StoredSearchTemplate;
+import com.edu.salem.service.resilience.AdaptiveConcurrencyLimiter;
+import com.edu.salem.service.resilience.ConcurrencyLimitExceededException;
+import com.edu.salem.service.resilience.RequestHedger;
+import com.edu.salem.service.resilience.ServiceOverloadedException;
+import com.edu.salem.service.vector.KnnQueryBuilder;
+import com.edu.salem.service.vector.RankFusion;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import org.apache.http.HttpHost;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.impl.client.BasicCredentialsProvider;
+import jakarta.json.stream.JsonParser;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.opensearch.client.Cancellable;
+import org.opensearch.client.Request;
+import org.opensearch.client.Response;
+import org.opensearch.client.ResponseException;
+import org.opensearch.client.ResponseListener;
 import org.opensearch.client.RestClient;
-import org.opensearch.client.json.jackson.JacksonJsonpMapper;
-import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
 import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch._types.SortOptions;
 import org.opensearch.client.opensearch._types.aggregations.Aggregation;
 import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.MsearchRequest;
+import org.opensearch.client.opensearch.core.MsearchResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
 import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.msearch.MultiSearchResponseItem;
+import org.opensearch.client.opensearch.core.msearch.MultisearchBody;
+import org.opensearch.client.opensearch.core.msearch.RequestItem;
+import org.opensearch.client.opensearch.core.pit.CreatePitResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.Pit;
+import org.opensearch.client.opensearch.core.search.TotalHits;
+import org.opensearch.client.opensearch.core.search.TotalHitsRelation;
 import org.opensearch.client.transport.OpenSearchTransport;
-import org.opensearch.client.transport.rest_client.RestClientTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.lang.NonNull;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Component
-@Primary
 public class OpenSearchService implements SearchService {
 
     private static final String ERROR_OCCURRED = "Error Occurred, ";
+    private static final String COMPLEX_QUERY_CACHE = "complexQuery";
+    private static final String COMPLEX_QUERY_FACETS_CACHE = "complexQueryFacets";
     private final String index;
-    private final OpenSearchClient client;
+    private final OpenSearchAsyncClient client;
     private final QueryBuilder queryBuilder;
+    private final Executor searchExecutor;
+    private final long hitsTimeoutMillis;
+    private final long aggregationTimeoutMillis;
+    private final AggregationTimeoutPolicy aggregationTimeoutPolicy;
+    private final SearchMode searchMode;
+    private final boolean pointInTimeEnabled;
+    private final String pointInTimeKeepAlive;
+    private final boolean precompiled;
+    private final RestClient restClient;
+    private final JsonpMapper jsonpMapper;
+    private final StoredSearchTemplate storedSearchTemplate;
+    private final KnnQueryBuilder knnQueryBuilder;
+    private final RetrievalMode retrievalMode;
+    private final int rankConstant;
+    private final long vectorTimeoutMillis;
+    private final boolean facetCacheEnabled;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CacheManager cacheManager;
+    private final ComplexQueryKeyGenerator complexQueryKeyGenerator;
+    private final RequestHedger requestHedger;
+    private final SearchMetrics searchMetrics;
     private static final Logger logger = LoggerFactory.getLogger(OpenSearchService.class);
 
     public OpenSearchService(@Value("${management.data.openSearch.productIndex}") final String index,
-                             @Value("${management.data.openSearch.host}") final String host,
-                             @Value("${management.data.openSearch.port}") final Integer port,
-                             @Value("${management.data.openSearch.user}") final String user,
-                             @Value("${management.data.openSearch.password}") final String password,
-                             final QueryBuilder queryBuilder) {
+                             @Value("${management.service.search.hitsTimeoutMillis:2000}") final long hitsTimeoutMillis,
+                             @Value("${management.service.search.aggregationTimeoutMillis:1000}") final long aggregationTimeoutMillis,
+                             @Value("${management.service.search.aggregationTimeoutPolicy:HITS_ONLY}") final AggregationTimeoutPolicy aggregationTimeoutPolicy,
+                             @Value("${management.service.search.mode:SPLIT}") final SearchMode searchMode,
+                             @Value("${management.service.pagination.pointInTime.enabled:false}") final boolean pointInTimeEnabled,
+                             @Value("${management.service.pagination.pointInTime.keepAlive:1m}") final String pointInTimeKeepAlive,
+                             @Value("${management.service.search.precompiled:true}") final boolean precompiled,
+                             @Value("${management.service.search.vector.retrieval:LEXICAL}") final RetrievalMode retrievalMode,
+                             @Value("${management.service.search.vector.rankConstant:60}") final int rankConstant,
+                             @Value("${management.service.search.vector.timeoutMillis:500}") final long vectorTimeoutMillis,
+                             @Value("${management.service.search.facetCache.enabled:true}") final boolean facetCacheEnabled,
+                             final OpenSearchAsyncClient client,
+                             final RestClient restClient,
+                             final OpenSearchTransport transport,
+                             final QueryBuilder queryBuilder,
+                             final StoredSearchTemplate storedSearchTemplate,
+                             final KnnQueryBuilder knnQueryBuilder,
+                             final AdaptiveConcurrencyLimiter concurrencyLimiter,
+                             final CacheManager cacheManager,
+                             final ComplexQueryKeyGenerator complexQueryKeyGenerator,
+                             final RequestHedger requestHedger,
+                             final SearchMetrics searchMetrics,
+                             @Qualifier("searchExecutor") final Executor searchExecutor) {
 
-        final HttpHost httpHost = new HttpHost(host, port, "http");
-        final BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-        credentialsProvider.setCredentials(new AuthScope(httpHost), new UsernamePasswordCredentials(user, password));
-
-        final RestClient restClient = RestClient.builder(httpHost).
-                setHttpClientConfigCallback(httpClientBuilder -> httpClientBuilder.setDefaultCredentialsProvider(
-                        credentialsProvider)).build();
-
-        final OpenSearchTransport transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
         this.queryBuilder = queryBuilder;
         this.index = index;
-        this.client = new OpenSearchClient(transport);
+        this.client = client;
+        this.searchExecutor = searchExecutor;
+        this.hitsTimeoutMillis = hitsTimeoutMillis;
+        this.aggregationTimeoutMillis = aggregationTimeoutMillis;
+        this.aggregationTimeoutPolicy = aggregationTimeoutPolicy;
+        this.searchMode = searchMode;
+        this.pointInTimeEnabled = pointInTimeEnabled;
+        this.pointInTimeKeepAlive = pointInTimeKeepAlive;
+        this.precompiled = precompiled;
+        this.restClient = restClient;
+        this.jsonpMapper = transport.jsonpMapper();
+        this.storedSearchTemplate = storedSearchTemplate;
+        this.knnQueryBuilder = knnQueryBuilder;
+        this.retrievalMode = retrievalMode;
+        this.rankConstant = rankConstant;
+        this.vectorTimeoutMillis = vectorTimeoutMillis;
+        this.facetCacheEnabled = facetCacheEnabled;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.cacheManager = cacheManager;
+        this.complexQueryKeyGenerator = complexQueryKeyGenerator;
+        this.requestHedger = requestHedger;
+        this.searchMetrics = searchMetrics;
 
     }
 
     @NonNull
+    @Cacheable(value = "complexQuery", keyGenerator = "complexQueryKeyGenerator", sync = true)
     @CircuitBreaker(name = "complexQuery", fallbackMethod = "complexQueryFallBack")
+    @Bulkhead(name = "complexQuery")
     @Override
     public Optional<SearchResponseModel> complexQuery(ComplexQueryRequestModel complexQueryRequestModel) throws IOException {
 
-        SearchResponseModel searchResponseModel = null;
         try {
-            final CompletableFuture<SearchResponse<Product>> queryResultFuture = getQueryResult(complexQueryRequestModel);
-            final CompletableFuture<SearchResponse<String>> queryAggregationResultFuture = getQueryAggregationResult(complexQueryRequestModel);
+            return complexQueryAsync(complexQueryRequestModel).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
 
-            final SearchResponse<Product> queryResult = queryResultFuture != null ? queryResultFuture.get() : null;
-            final SearchResponse<String> queryAggregationResult = queryAggregationResultFuture != null ? queryAggregationResultFuture.get() : null;
+    }
 
-            searchResponseModel = this.queryBuilder.toModelConversion(Optional.ofNullable(queryResult), queryAggregationResult, complexQueryRequestModel);
+    @CircuitBreaker(name = "complexQuery", fallbackMethod = "complexQueryAsyncFallBack")
+    @Bulkhead(name = "complexQuery")
+    @Override
+    public CompletableFuture<Optional<SearchResponseModel>> complexQueryAsync(ComplexQueryRequestModel complexQueryRequestModel) {
+        final SearchCursor cursor = this.queryBuilder.readCursor(complexQueryRequestModel);
+        if (retrievalMode != RetrievalMode.LEXICAL) {
+            return vectorQuery(complexQueryRequestModel)
+                    .thenApply(searchMetrics::recordResult)
+                    .thenApply(Optional::ofNullable);
+        }
+        final CompletableFuture<Map<String, Map<String, Long>>> cachedFacetsFuture = facetCacheEnabled
+                ? supplyOnSearchExecutor(() -> cachedFacets(complexQueryRequestModel))
+                : CompletableFuture.completedFuture(null);
+        return cachedFacetsFuture
+                .thenCompose(cachedFacets -> lexicalQuery(complexQueryRequestModel, cursor, cachedFacets)
+                        .thenApply(searchMetrics::recordResult)
+                        .thenApply(result -> cachedFacets == null ? cacheFacets(complexQueryRequestModel, result) : result))
+                .thenApply(Optional::ofNullable);
+    }
 
+    private CompletableFuture<SearchResponseModel> lexicalQuery(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                SearchCursor cursor,
+                                                                Map<String, Map<String, Long>> cachedFacets) {
+        if (cursor != null && pointInTimeEnabled) {
+            return pointInTimeQuery(complexQueryRequestModel, cursor, cachedFacets);
+        }
+        if (cachedFacets != null) {
+            return splitQuery(complexQueryRequestModel, cursor, cachedFacets);
+        }
+        return switch (searchMode) {
+            case SINGLE -> singleQuery(complexQueryRequestModel, cursor);
+            case MSEARCH -> multiSearchQuery(complexQueryRequestModel, cursor);
+            default -> splitQuery(complexQueryRequestModel, cursor, null);
+        };
+    }
+
+    @Override
+    public CompletableFuture<List<Optional<SearchResponseModel>>> complexQueryBatchAsync(List<ComplexQueryRequestModel> complexQueryRequestModels) {
+        if (retrievalMode != RetrievalMode.LEXICAL) {
+            return vectorQueryBatch(complexQueryRequestModels);
+        }
+        final Map<String, Aggregation> filters = this.queryBuilder.buildAggregationFilters();
+        final List<RequestItem> searches = new ArrayList<>(complexQueryRequestModels.size());
+        for (ComplexQueryRequestModel complexQueryRequestModel : complexQueryRequestModels) {
+            final Query query = this.queryBuilder.buildQuery(complexQueryRequestModel);
+            final SearchCursor cursor = this.queryBuilder.readCursor(complexQueryRequestModel);
+            searches.add(RequestItem.of(r -> r
+                    .header(h -> h.index(this.index))
+                    .body(b -> paginate(b.query(query).aggregations(filters), complexQueryRequestModel, cursor))));
+        }
+
+        final CompletableFuture<MsearchResponse<Product>> multiSearchResult = concurrencyLimiter.execute(() -> {
+            try {
+                return client.msearch(MsearchRequest.of(m -> m.searches(searches)), Product.class);
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+        return withTimeout(multiSearchResult, hitsTimeoutMillis)
+                .thenApplyAsync(response -> {
+                    final List<MultiSearchResponseItem<Product>> responses = response.responses();
+                    final List<Optional<SearchResponseModel>> results = new ArrayList<>(responses.size());
+                    for (int i = 0; i < responses.size(); i++) {
+                        final SearchResponse<Product> queryResult = multiSearchItem(responses.get(i));
+                        results.add(queryResult == null
+                                ? Optional.empty()
+                                : Optional.of(this.queryBuilder.toModelConversion(Optional.of(queryResult),
+                                queryResult, complexQueryRequestModels.get(i))));
+                    }
+                    return results;
+                }, searchExecutor);
+    }
+
+    private CompletableFuture<List<Optional<SearchResponseModel>>> vectorQueryBatch(List<ComplexQueryRequestModel> complexQueryRequestModels) {
+        final List<CompletableFuture<Optional<SearchResponseModel>>> results = complexQueryRequestModels.stream()
+                .map(complexQueryRequestModel -> vectorQuery(complexQueryRequestModel)
+                        .thenApply(Optional::ofNullable)
+                        .exceptionally(throwable -> {
+                            logger.error(ERROR_OCCURRED, throwable);
+                            return Optional.empty();
+                        }))
+                .toList();
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    private Optional<SearchResponseModel> complexQueryFallBack(ComplexQueryRequestModel complexQueryRequestModel,
+                                                               Throwable throwable) throws IOException {
+        try {
+            return complexQueryAsyncFallBack(complexQueryRequestModel, throwable).get();
         } catch (InterruptedException e) {
-            logger.error(ERROR_OCCURRED, e);
             Thread.currentThread().interrupt();
-        } catch (NullPointerException | ExecutionException e) {
-            logger.error(ERROR_OCCURRED, e);
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
         }
-        return Optional.ofNullable(searchResponseModel);
+    }
 
+    private CompletableFuture<Optional<SearchResponseModel>> complexQueryAsyncFallBack(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                                       Throwable throwable) {
+        final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        return supplyOnSearchExecutor(() -> staleResult(complexQueryRequestModel))
+                .exceptionally(staleReadFailure -> Optional.empty())
+                .thenCompose(staleResult -> {
+                    if (staleResult.isPresent()) {
+                        logger.warn("complexQuery degraded ({}), serving the last cached result", cause.toString());
+                        searchMetrics.fallback(Fallback.STALE);
+                        return CompletableFuture.completedFuture(staleResult);
+                    }
+                    if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                            || cause instanceof ConcurrencyLimitExceededException
+                            || cause instanceof RejectedExecutionException) {
+                        searchMetrics.fallback(Fallback.OVERLOADED);
+                        return CompletableFuture.failedFuture(new ServiceOverloadedException(cause));
+                    }
+                    logger.warn("complexQuery failed ({}), retrying without facets", cause.toString());
+                    searchMetrics.fallback(Fallback.HITS_ONLY);
+                    final SearchCursor cursor = this.queryBuilder.readCursor(complexQueryRequestModel);
+                    return withTimeout(getQueryResult(complexQueryRequestModel, cursor), hitsTimeoutMillis)
+                            .thenApplyAsync(queryResult -> Optional.of(searchMetrics.record(Stage.CONVERSION,
+                                    () -> this.queryBuilder.toModelConversion(Optional.ofNullable(queryResult), null,
+                                            complexQueryRequestModel))), searchExecutor);
+                });
     }
 
-    @Async
-    private CompletableFuture<SearchResponse<Product>> getQueryResult(ComplexQueryRequestModel complexQueryRequestModel) throws IOException {
+    private <T> CompletableFuture<T> supplyOnSearchExecutor(final Supplier<T> supplier) {
         try {
+            return CompletableFuture.supplyAsync(supplier, searchExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            Query queryFinal = this.queryBuilder.buildQuery(complexQueryRequestModel);
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Long>> cachedFacets(final ComplexQueryRequestModel complexQueryRequestModel) {
+        final Cache cache = facetCache();
+        if (cache == null) {
+            return null;
+        }
+        try {
+            final Cache.ValueWrapper cached = cache.get(complexQueryKeyGenerator.facetKey(complexQueryRequestModel));
+            return cached != null && cached.get() instanceof Map<?, ?> facets
+                    ? (Map<String, Map<String, Long>>) facets
+                    : null;
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the cached facets", e);
+            return null;
+        }
+    }
 
-            return CompletableFuture.completedFuture(client.search(s -> s
-                            .index(this.index)
-                            .size(complexQueryRequestModel.getSize())
-                            .from(complexQueryRequestModel.getFrom())
-                            .query(queryFinal),
-                    Product.class
-            ));
+    private SearchResponseModel cacheFacets(final ComplexQueryRequestModel complexQueryRequestModel,
+                                            final SearchResponseModel searchResponseModel) {
+        final Cache cache = facetCache();
+        if (cache == null || searchResponseModel == null || searchResponseModel.getFilters() == null) {
+            return searchResponseModel;
+        }
+        try {
+            cache.put(complexQueryKeyGenerator.facetKey(complexQueryRequestModel), searchResponseModel.getFilters());
+        } catch (RuntimeException e) {
+            logger.warn("Could not cache the facets", e);
+        }
+        return searchResponseModel;
+    }
+
+    private Cache facetCache() {
+        return facetCacheEnabled ? cacheManager.getCache(COMPLEX_QUERY_FACETS_CACHE) : null;
+    }
+
+    private Optional<SearchResponseModel> staleResult(final ComplexQueryRequestModel complexQueryRequestModel) {
+        try {
+            final Cache cache = cacheManager.getCache(COMPLEX_QUERY_CACHE);
+            if (cache == null) {
+                return Optional.empty();
+            }
+            final String key = complexQueryKeyGenerator.key(complexQueryRequestModel);
+            final Cache.ValueWrapper cached = cache instanceof TwoTierCache twoTierCache
+                    ? twoTierCache.getStale(key)
+                    : cache.get(key);
+            return cached != null && cached.get() instanceof SearchResponseModel searchResponseModel
+                    ? Optional.of(searchResponseModel)
+                    : Optional.empty();
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the last cached result", e);
+            return Optional.empty();
+        }
+    }
+
+    private static IOException rethrow(final Throwable cause) {
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException(cause);
+    }
+
+    private CompletableFuture<SearchResponseModel> splitQuery(ComplexQueryRequestModel complexQueryRequestModel,
+                                                              SearchCursor cursor,
+                                                              Map<String, Map<String, Long>> cachedFacets) {
+        final CompletableFuture<SearchResponse<Product>> queryResultFuture =
+                withTimeout(getQueryResult(complexQueryRequestModel, cursor), hitsTimeoutMillis);
+        final CompletableFuture<Map<String, Map<String, Long>>> facetsFuture =
+                getFacets(complexQueryRequestModel, cachedFacets);
+
+        return queryResultFuture.thenCombineAsync(facetsFuture,
+                (queryResult, facets) -> searchMetrics.record(Stage.CONVERSION,
+                        () -> this.queryBuilder.toModelConversion(Optional.ofNullable(queryResult),
+                                facets, complexQueryRequestModel, null)),
+                searchExecutor);
+    }
+
+    private CompletableFuture<SearchResponseModel> singleQuery(ComplexQueryRequestModel complexQueryRequestModel,
+                                                               SearchCursor cursor) {
+        return withTimeout(getQueryWithAggregationsResult(complexQueryRequestModel, cursor), hitsTimeoutMillis)
+                .thenApplyAsync(queryResult -> searchMetrics.record(Stage.CONVERSION,
+                        () -> this.queryBuilder.toModelConversion(Optional.ofNullable(queryResult), queryResult,
+                                complexQueryRequestModel)), searchExecutor);
+    }
 
-        } catch (OpenSearchException e) {
-            logger.error(ERROR_OCCURRED, e);
+    private CompletableFuture<SearchResponseModel> multiSearchQuery(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                    SearchCursor cursor) {
+        return withTimeout(getMultiSearchResult(complexQueryRequestModel, cursor), hitsTimeoutMillis)
+                .thenApplyAsync(multiSearchResult -> {
+                    SearchResponse<Product> queryResult = null;
+                    SearchResponse<Product> queryAggregationResult = null;
+                    if (multiSearchResult != null) {
+                        final List<MultiSearchResponseItem<Product>> responses = multiSearchResult.responses();
+                        queryResult = multiSearchItem(responses.get(0));
+                        queryAggregationResult = multiSearchItem(responses.get(1));
+                    }
+                    if (queryResult == null) {
+                        throw new CompletionException(new IOException("Hits search failed"));
+                    }
+                    final SearchResponse<Product> hitsResult = queryResult;
+                    final SearchResponse<Product> aggregationResult = queryAggregationResult;
+                    return searchMetrics.record(Stage.CONVERSION, () -> this.queryBuilder.toModelConversion(
+                            Optional.ofNullable(hitsResult), aggregationResult, complexQueryRequestModel));
+                }, searchExecutor);
+    }
+
+    private CompletableFuture<SearchResponseModel> pointInTimeQuery(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                    SearchCursor cursor,
+                                                                    Map<String, Map<String, Long>> cachedFacets) {
+        final Query query = searchMetrics.record(Stage.BUILD, () -> this.queryBuilder.buildQuery(complexQueryRequestModel));
+        final CompletableFuture<String> pitIdFuture = cursor.getPitId() != null
+                ? CompletableFuture.completedFuture(cursor.getPitId())
+                : createPointInTime();
+        final CompletableFuture<SearchResponse<Product>> queryResultFuture = withTimeout(pitIdFuture
+                .thenCompose(pitId -> searchMetrics.recordLeg(Stage.HITS, () -> precompiled
+                        ? search("/_search", searchMetrics.record(Stage.BUILD, () -> this.queryBuilder
+                        .renderPointInTimeSearch(complexQueryRequestModel, cursor, pitId, this.pointInTimeKeepAlive)),
+                        Product.class)
+                        : search(SearchRequest.of(s -> paginate(s
+                                .pit(new Pit.Builder().id(pitId).keepAlive(this.pointInTimeKeepAlive).build())
+                                .query(query), complexQueryRequestModel, cursor)),
+                        Product.class))), hitsTimeoutMillis);
+        final CompletableFuture<Map<String, Map<String, Long>>> facetsFuture =
+                getFacets(complexQueryRequestModel, cachedFacets);
+
+        return queryResultFuture.thenCombineAsync(facetsFuture,
+                (queryResult, facets) -> searchMetrics.record(Stage.CONVERSION,
+                        () -> this.queryBuilder.toModelConversion(Optional.ofNullable(queryResult),
+                                facets, complexQueryRequestModel, pitIdFuture.join())),
+                searchExecutor);
+    }
+
+    private CompletableFuture<Map<String, Map<String, Long>>> getFacets(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                      Map<String, Map<String, Long>> cachedFacets) {
+        if (cachedFacets != null) {
+            return CompletableFuture.completedFuture(cachedFacets);
         }
-        return null;
+        return withTimeout(getQueryAggregationResult(complexQueryRequestModel), aggregationTimeoutMillis)
+                .exceptionally(this::onAggregationFailure)
+                .thenApplyAsync(this.queryBuilder::toFacets, searchExecutor);
     }
 
-    @Async
-    private CompletableFuture<SearchResponse<String>> getQueryAggregationResult(ComplexQueryRequestModel complexQueryRequestModel) throws IOException {
+    // Vector results are ranked by similarity (or fused rank under HYBRID): cursors are rejected before reaching
+    // here and the requested order is not applied.
+    private CompletableFuture<SearchResponseModel> vectorQuery(ComplexQueryRequestModel complexQueryRequestModel) {
+        final int window = complexQueryRequestModel.getFrom() + complexQueryRequestModel.getSize();
+        final Map<String, Aggregation> filters = this.queryBuilder.buildAggregationFilters();
+        final boolean hybrid = retrievalMode == RetrievalMode.HYBRID;
+
+        final CompletableFuture<SearchResponse<Product>> knnResultFuture = withTimeout(CompletableFuture
+                .supplyAsync(() -> searchMetrics.record(Stage.BUILD,
+                        () -> this.knnQueryBuilder.buildKnnQuery(complexQueryRequestModel, window)), searchExecutor)
+                .thenCompose(knnQuery -> searchMetrics.recordLeg(Stage.KNN, () -> search(SearchRequest.of(s -> {
+                    s.index(this.index).query(knnQuery).size(window);
+                    return hybrid ? s : s.aggregations(filters);
+                }), Product.class))), hybrid ? vectorTimeoutMillis : hitsTimeoutMillis);
+
+        if (!hybrid) {
+            return knnResultFuture.thenApplyAsync(knnResult -> knnResult == null
+                    ? searchMetrics.record(Stage.CONVERSION,
+                    () -> this.queryBuilder.toModelConversion(Optional.empty(), null, complexQueryRequestModel))
+                    : fuse(complexQueryRequestModel, knnResult, List.of(knnResult.hits().hits())), searchExecutor);
+        }
+
+        final ComplexQueryRequestModel lexicalWindow = new ComplexQueryRequestModel(
+                complexQueryRequestModel.getQueryTerm(), complexQueryRequestModel.getFilters(), null);
+        lexicalWindow.setSize(window);
+        lexicalWindow.setFrom(0);
+        lexicalWindow.setExactHits(complexQueryRequestModel.getExactHits());
+        final CompletableFuture<SearchResponse<Product>> lexicalResultFuture =
+                withTimeout(getQueryWithAggregationsResult(lexicalWindow, null), hitsTimeoutMillis);
+        final CompletableFuture<SearchResponse<Product>> degradableKnnResultFuture = knnResultFuture
+                .exceptionally(throwable -> {
+                    logger.warn("kNN leg failed, returning lexical results only", throwable);
+                    return null;
+                });
+
+        return lexicalResultFuture.thenCombineAsync(degradableKnnResultFuture, (lexicalResult, knnResult) -> {
+            if (lexicalResult == null) {
+                return searchMetrics.record(Stage.CONVERSION,
+                        () -> this.queryBuilder.toModelConversion(Optional.empty(), null, complexQueryRequestModel));
+            }
+            return fuse(complexQueryRequestModel, lexicalResult, List.of(lexicalResult.hits().hits(),
+                    knnResult == null ? List.of() : knnResult.hits().hits()));
+        }, searchExecutor);
+    }
+
+    private SearchResponseModel fuse(final ComplexQueryRequestModel complexQueryRequestModel,
+                                     final SearchResponse<Product> primaryResult,
+                                     final List<List<Hit<Product>>> rankings) {
+        final List<Hit<Product>> fused = RankFusion.reciprocalRank(rankConstant, rankings);
+        final int from = Math.min(complexQueryRequestModel.getFrom(), fused.size());
+        final int to = Math.min(from + complexQueryRequestModel.getSize(), fused.size());
+        final TotalHits total = primaryResult.hits().total();
+        return searchMetrics.record(Stage.CONVERSION, () -> this.queryBuilder.toModelConversion(fused.subList(from, to),
+                total == null ? fused.size() : total.value(), total == null || total.relation() == TotalHitsRelation.Eq,
+                primaryResult, complexQueryRequestModel));
+    }
+
+    private CompletableFuture<String> createPointInTime() {
         try {
-            Query query = this.queryBuilder.buildQuery(complexQueryRequestModel);
+            return client.createPit(c -> c
+                            .targetIndexes(this.index)
+                            .keepAlive(t -> t.time(this.pointInTimeKeepAlive)))
+                    .thenApply(CreatePitResponse::pitId);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private SearchRequest.Builder paginate(final SearchRequest.Builder builder,
+                                           final ComplexQueryRequestModel complexQueryRequestModel,
+                                           final SearchCursor cursor) {
+        builder.size(complexQueryRequestModel.getSize())
+                .trackTotalHits(this.queryBuilder.buildTrackTotalHits(complexQueryRequestModel));
+        final List<SortOptions> sort = this.queryBuilder.buildSort(complexQueryRequestModel);
+        if (!sort.isEmpty()) {
+            builder.sort(sort);
+        }
+        return cursor != null
+                ? builder.searchAfter(cursor.getSearchAfter())
+                : builder.from(complexQueryRequestModel.getFrom());
+    }
+
+    private MultisearchBody.Builder paginate(final MultisearchBody.Builder builder,
+                                             final ComplexQueryRequestModel complexQueryRequestModel,
+                                             final SearchCursor cursor) {
+        builder.size(complexQueryRequestModel.getSize())
+                .trackTotalHits(this.queryBuilder.buildTrackTotalHits(complexQueryRequestModel));
+        final List<SortOptions> sort = this.queryBuilder.buildSort(complexQueryRequestModel);
+        if (!sort.isEmpty()) {
+            builder.sort(sort);
+        }
+        return cursor != null
+                ? builder.searchAfter(cursor.getSearchAfter())
+                : builder.from(complexQueryRequestModel.getFrom());
+    }
+
+    private SearchResponse<Product> multiSearchItem(final MultiSearchResponseItem<Product> item) {
+        if (item.isFailure()) {
+            logger.error(ERROR_OCCURRED + "{}", item.failure().error().reason());
+            return null;
+        }
+        return item.result();
+    }
+
+    private <T> SearchResponse<T> onAggregationFailure(final Throwable throwable) {
+        final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (cause instanceof TimeoutException && aggregationTimeoutPolicy == AggregationTimeoutPolicy.HITS_ONLY) {
+            logger.warn("Aggregation leg exceeded {} ms, returning hits without facets", aggregationTimeoutMillis);
+            return null;
+        }
+        if (cause instanceof ConcurrencyLimitExceededException) {
+            logger.warn("Aggregation leg shed at the concurrency limit, returning hits without facets");
+            return null;
+        }
+        if (cause instanceof OpenSearchException || cause instanceof ResponseException) {
+            logger.error(ERROR_OCCURRED, cause);
+            return null;
+        }
+        throw new CompletionException(cause);
+    }
+
+    private CompletableFuture<SearchResponse<Product>> getQueryResult(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                      SearchCursor cursor) {
+        return searchMetrics.recordLeg(Stage.HITS,
+                () -> requestHedger.hedge(preference -> getQueryResult(complexQueryRequestModel, cursor, preference)));
+    }
+
+    private CompletableFuture<SearchResponse<Product>> getQueryResult(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                      SearchCursor cursor,
+                                                                      String preference) {
+        if (storedSearchTemplate.isActive()) {
+            return search(templateEndpoint(),
+                    searchMetrics.record(Stage.BUILD,
+                            () -> storedSearchTemplate.renderParams(complexQueryRequestModel, cursor, true, false)), preference,
+                    Product.class);
+        }
+        if (precompiled) {
+            return search(searchEndpoint(),
+                    searchMetrics.record(Stage.BUILD,
+                            () -> this.queryBuilder.renderSearch(complexQueryRequestModel, cursor, true, false)), preference,
+                    Product.class);
+        }
+        final Query queryFinal = searchMetrics.record(Stage.BUILD, () -> this.queryBuilder.buildQuery(complexQueryRequestModel));
+
+        return search(SearchRequest.of(s -> paginate(s
+                        .index(this.index)
+                        .preference(preference)
+                        .query(queryFinal), complexQueryRequestModel, cursor)),
+                Product.class);
+    }
+
+    private CompletableFuture<SearchResponse<Product>> getQueryWithAggregationsResult(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                                      SearchCursor cursor) {
+        return searchMetrics.recordLeg(Stage.HITS, () -> requestHedger.hedge(
+                preference -> getQueryWithAggregationsResult(complexQueryRequestModel, cursor, preference)));
+    }
+
+    private CompletableFuture<SearchResponse<Product>> getQueryWithAggregationsResult(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                                      SearchCursor cursor,
+                                                                                      String preference) {
+        if (storedSearchTemplate.isActive()) {
+            return search(templateEndpoint(),
+                    searchMetrics.record(Stage.BUILD,
+                            () -> storedSearchTemplate.renderParams(complexQueryRequestModel, cursor, true, true)), preference,
+                    Product.class);
+        }
+        if (precompiled) {
+            return search(searchEndpoint(),
+                    searchMetrics.record(Stage.BUILD,
+                            () -> this.queryBuilder.renderSearch(complexQueryRequestModel, cursor, true, true)), preference,
+                    Product.class);
+        }
+        final Query query = searchMetrics.record(Stage.BUILD, () -> this.queryBuilder.buildQuery(complexQueryRequestModel));
+        final Map<String, Aggregation> filters = this.queryBuilder.buildAggregationFilters();
+
+        return search(SearchRequest.of(s -> paginate(s
+                        .index(this.index)
+                        .preference(preference)
+                        .query(query)
+                        .aggregations(filters), complexQueryRequestModel, cursor)),
+                Product.class);
+    }
+
+    private CompletableFuture<SearchResponse<String>> getQueryAggregationResult(ComplexQueryRequestModel complexQueryRequestModel) {
+        return searchMetrics.recordLeg(Stage.AGGREGATIONS, () -> {
+            if (storedSearchTemplate.isActive()) {
+                return search(templateEndpoint(),
+                        searchMetrics.record(Stage.BUILD,
+                                () -> storedSearchTemplate.renderParams(complexQueryRequestModel, null, false, true)), String.class);
+            }
+            if (precompiled) {
+                return search(searchEndpoint(),
+                        searchMetrics.record(Stage.BUILD,
+                                () -> this.queryBuilder.renderSearch(complexQueryRequestModel, null, false, true)), String.class);
+            }
+            final Query query = searchMetrics.record(Stage.BUILD, () -> this.queryBuilder.buildQuery(complexQueryRequestModel));
             final Map<String, Aggregation> filters = this.queryBuilder.buildAggregationFilters();
 
-            return CompletableFuture.completedFuture(client.search(s -> s
+            return search(SearchRequest.of(s -> s
                             .index(this.index)
                             .query(query)
                             .size(0)
-                            .aggregations(filters),
-                    String.class
-            ));
+                            .trackTotalHits(t -> t.enabled(false))
+                            .aggregations(filters)),
+                    String.class);
+        });
+    }
+
+    private CompletableFuture<MsearchResponse<Product>> getMultiSearchResult(ComplexQueryRequestModel complexQueryRequestModel,
+                                                                             SearchCursor cursor) {
+        final Query query = searchMetrics.record(Stage.BUILD, () -> this.queryBuilder.buildQuery(complexQueryRequestModel));
+        final Map<String, Aggregation> filters = this.queryBuilder.buildAggregationFilters();
+
+        final RequestItem hitsItem = RequestItem.of(r -> r
+                .header(h -> h.index(this.index))
+                .body(b -> paginate(b.query(query), complexQueryRequestModel, cursor)));
+        final RequestItem aggregationItem = RequestItem.of(r -> r
+                .header(h -> h.index(this.index))
+                .body(b -> b
+                        .size(0)
+                        .trackTotalHits(t -> t.enabled(false))
+                        .query(query)
+                        .aggregations(filters)));
+
+        return searchMetrics.recordLeg(Stage.HITS, () -> concurrencyLimiter.execute(() -> {
+            try {
+                return client.msearch(MsearchRequest.of(m -> m.searches(hitsItem, aggregationItem)), Product.class);
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    private <T> CompletableFuture<SearchResponse<T>> search(final SearchRequest searchRequest, final Class<T> documentClass) {
+        return concurrencyLimiter.execute(() -> {
+            try {
+                return client.search(searchRequest, documentClass);
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<SearchResponse<T>> search(final String endpoint, final byte[] body,
+                                                            final Class<T> documentClass) {
+        return search(endpoint, body, null, documentClass);
+    }
+
+    private <T> CompletableFuture<SearchResponse<T>> search(final String endpoint, final byte[] body,
+                                                            final String preference, final Class<T> documentClass) {
+        return concurrencyLimiter.execute(() -> performSearch(endpoint, body, preference, documentClass));
+    }
 
-        } catch (OpenSearchException e) {
-            logger.error(ERROR_OCCURRED, e);
+    private <T> CompletableFuture<SearchResponse<T>> performSearch(final String endpoint, final byte[] body,
+                                                                   final String preference,
+                                                                   final Class<T> documentClass) {
+        final Request request = new Request("POST", endpoint);
+        request.addParameter("typed_keys", "true");
+        if (preference != null) {
+            request.addParameter("preference", preference);
         }
-        return null;
+        request.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+        final JsonpDeserializer<SearchResponse<T>> deserializer =
+                SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(documentClass));
+
+        final CompletableFuture<SearchResponse<T>> future = new CompletableFuture<>();
+        final Cancellable cancellable = restClient.performRequestAsync(request, new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                try (InputStream content = response.getEntity().getContent();
+                     JsonParser parser = jsonpMapper.jsonProvider().createParser(content)) {
+                    future.complete(deserializer.deserialize(parser, jsonpMapper));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                future.completeExceptionally(exception);
+            }
+        });
+        future.whenComplete((response, throwable) -> {
+            if (future.isCancelled()) {
+                cancellable.cancel();
+            }
+        });
+        return future;
+    }
+
+    private String searchEndpoint() {
+        return "/" + this.index + "/_search";
+    }
+
+    private String templateEndpoint() {
+        return "/" + this.index + "/_search/template";
+    }
 
+    private static <T> CompletableFuture<T> withTimeout(final CompletableFuture<T> future, final long timeoutMillis) {
+        final CompletableFuture<T> timed = future.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        timed.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                future.cancel(true);
+            }
+        });
+        return timed;
     }
 
 }
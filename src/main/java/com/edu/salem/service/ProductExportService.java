@@ -0,0 +1,200 @@
+package com.edu.salem.service;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.service.query.QueryBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.Pit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class ProductExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+    private static final String ERROR_OCCURRED = "Error Occurred, ";
+    private static final List<String> SOURCE_FIELDS = List.of("id", "title", "category", "entity");
+    private static final Object END_OF_SLICE = new Object();
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private final String index;
+    private final OpenSearchAsyncClient client;
+    private final QueryBuilder queryBuilder;
+    private final ObjectMapper objectMapper;
+    private final Executor exportExecutor;
+    private final int slices;
+    private final int pageSize;
+    private final int queueCapacity;
+    private final String keepAlive;
+
+    public ProductExportService(@Value("${management.data.openSearch.productIndex}") final String index,
+                                @Value("${management.service.export.slices:4}") final int slices,
+                                @Value("${management.service.export.pageSize:1000}") final int pageSize,
+                                @Value("${management.service.export.queueCapacity:8}") final int queueCapacity,
+                                @Value("${management.service.export.keepAlive:1m}") final String keepAlive,
+                                final OpenSearchAsyncClient client,
+                                final QueryBuilder queryBuilder,
+                                final ObjectMapper objectMapper,
+                                @Qualifier("exportExecutor") final Executor exportExecutor) {
+        this.index = index;
+        this.slices = slices;
+        this.pageSize = pageSize;
+        this.queueCapacity = queueCapacity;
+        this.keepAlive = keepAlive;
+        this.client = client;
+        this.queryBuilder = queryBuilder;
+        this.objectMapper = objectMapper;
+        this.exportExecutor = exportExecutor;
+    }
+
+    public void export(final ComplexQueryRequestModel complexQueryRequestModel,
+                       final OutputStream outputStream) throws IOException {
+        final Query query = this.queryBuilder.buildQuery(complexQueryRequestModel);
+        final String pitId = createPointInTime();
+        final BlockingQueue<Object> pages = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        try (SequenceWriter writer = objectMapper.writerFor(Product.class)
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream)) {
+            for (int slice = 0; slice < slices; slice++) {
+                final int sliceId = slice;
+                exportExecutor.execute(() -> readSlice(query, pitId, sliceId, pages, cancelled));
+            }
+
+            int remaining = slices;
+            while (remaining > 0) {
+                final Object page = pages.take();
+                if (page == END_OF_SLICE) {
+                    remaining--;
+                } else if (page instanceof Throwable throwable) {
+                    throw new IOException("Export slice failed", throwable);
+                } else {
+                    for (Object product : (List<?>) page) {
+                        writer.write(product);
+                    }
+                    writer.flush();
+                }
+            }
+            outputStream.write('\n');
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Export capacity exhausted", e);
+        } finally {
+            cancelled.set(true);
+            deletePointInTime(pitId);
+        }
+    }
+
+    private void readSlice(final Query query, final String pitId, final int sliceId,
+                           final BlockingQueue<Object> pages, final AtomicBoolean cancelled) {
+        try {
+            List<String> searchAfter = null;
+            while (!cancelled.get()) {
+                final SearchResponse<Product> response = client
+                        .search(sliceRequest(query, pitId, sliceId, searchAfter), Product.class)
+                        .get();
+                final List<Hit<Product>> hits = response.hits().hits();
+                if (hits.isEmpty()) {
+                    break;
+                }
+                final List<Product> products = new ArrayList<>(hits.size());
+                for (Hit<Product> hit : hits) {
+                    products.add(hit.source());
+                }
+                enqueue(pages, products, cancelled);
+                if (hits.size() < pageSize) {
+                    break;
+                }
+                searchAfter = hits.get(hits.size() - 1).sort();
+            }
+            enqueue(pages, END_OF_SLICE, cancelled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            logger.error(ERROR_OCCURRED, e);
+            try {
+                enqueue(pages, e, cancelled);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private SearchRequest sliceRequest(final Query query, final String pitId, final int sliceId,
+                                       final List<String> searchAfter) {
+        return SearchRequest.of(s -> {
+            s.pit(new Pit.Builder().id(pitId).keepAlive(keepAlive).build())
+                    .query(query)
+                    .size(pageSize)
+                    .sort(this.queryBuilder.buildTieBreakerSort())
+                    .trackTotalHits(t -> t.enabled(false))
+                    .source(source -> source.filter(filter -> filter.includes(SOURCE_FIELDS)));
+            if (slices > 1) {
+                s.slice(slice -> slice.id(sliceId).max(slices));
+            }
+            if (searchAfter != null) {
+                s.searchAfter(searchAfter);
+            }
+            return s;
+        });
+    }
+
+    private static void enqueue(final BlockingQueue<Object> pages, final Object page,
+                                final AtomicBoolean cancelled) throws InterruptedException {
+        while (!cancelled.get()) {
+            if (pages.offer(page, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    private String createPointInTime() throws IOException {
+        try {
+            return client.createPit(c -> c
+                            .targetIndexes(this.index)
+                            .keepAlive(t -> t.time(this.keepAlive)))
+                    .get()
+                    .pitId();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not open point in time", e.getCause());
+        }
+    }
+
+    private void deletePointInTime(final String pitId) {
+        try {
+            client.deletePit(d -> d.pitId(List.of(pitId)))
+                    .exceptionally(throwable -> {
+                        logger.warn("Could not delete point in time", throwable);
+                        return null;
+                    });
+        } catch (IOException e) {
+            logger.warn("Could not delete point in time", e);
+        }
+    }
+}
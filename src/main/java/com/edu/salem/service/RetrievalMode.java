@@ -0,0 +1,7 @@
+package com.edu.salem.service;
+
+public enum RetrievalMode {
+    LEXICAL,
+    KNN,
+    HYBRID
+}
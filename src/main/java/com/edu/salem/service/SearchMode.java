@@ -0,0 +1,7 @@
+package com.edu.salem.service;
+
+public enum SearchMode {
+    SPLIT,
+    SINGLE,
+    MSEARCH
+}
@@ -5,9 +5,15 @@ import com.edu.salem.model.SearchResponseModel;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public interface SearchService {
     Optional<SearchResponseModel> complexQuery(final ComplexQueryRequestModel complexQueryRequestModel) throws IOException;
+
+    CompletableFuture<Optional<SearchResponseModel>> complexQueryAsync(final ComplexQueryRequestModel complexQueryRequestModel);
+
+    CompletableFuture<List<Optional<SearchResponseModel>>> complexQueryBatchAsync(final List<ComplexQueryRequestModel> complexQueryRequestModels);
 }
@@ -0,0 +1,381 @@
+package com.edu.salem.service;
+
+import com.edu.salem.cache.ComplexQueryKeyGenerator;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.metrics.SearchMetrics;
+import com.edu.salem.service.metrics.SearchMetrics.Fallback;
+import com.edu.salem.service.metrics.SearchMetrics.Stage;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.SearchCursor;
+import com.edu.salem.service.resilience.AdaptiveConcurrencyLimiter;
+import com.edu.salem.service.resilience.ConcurrencyLimitExceededException;
+import com.edu.salem.service.resilience.ServiceOverloadedException;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.opensearch.client.Cancellable;
+import org.opensearch.client.Request;
+import org.opensearch.client.Response;
+import org.opensearch.client.ResponseListener;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch._types.SortOptions;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class StreamingSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingSearchService.class);
+    private static final String COMPLEX_QUERY_CACHE = "complexQuery";
+    private static final List<String> SOURCE_FIELDS = List.of("id", "title", "category", "entity");
+    private static final String FILTER_PATH = "hits.total,hits.hits._source,hits.hits.sort,"
+            + "aggregations.*.buckets.key,aggregations.*.buckets.doc_count";
+    private final String index;
+    private final long hitsTimeoutMillis;
+    private final RestClient restClient;
+    private final JsonpMapper jsonpMapper;
+    private final QueryBuilder queryBuilder;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CacheManager cacheManager;
+    private final ComplexQueryKeyGenerator complexQueryKeyGenerator;
+    private final SearchMetrics searchMetrics;
+    private final Executor searchExecutor;
+
+    public StreamingSearchService(@Value("${management.data.openSearch.productIndex}") final String index,
+                                  @Value("${management.service.search.hitsTimeoutMillis:2000}") final long hitsTimeoutMillis,
+                                  final RestClient restClient,
+                                  final OpenSearchTransport transport,
+                                  final QueryBuilder queryBuilder,
+                                  final ObjectMapper objectMapper,
+                                  final AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                  final CacheManager cacheManager,
+                                  final ComplexQueryKeyGenerator complexQueryKeyGenerator,
+                                  final SearchMetrics searchMetrics,
+                                  @Qualifier("searchExecutor") final Executor searchExecutor) {
+        this.index = index;
+        this.hitsTimeoutMillis = hitsTimeoutMillis;
+        this.restClient = restClient;
+        this.jsonpMapper = transport.jsonpMapper();
+        this.queryBuilder = queryBuilder;
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.cacheManager = cacheManager;
+        this.complexQueryKeyGenerator = complexQueryKeyGenerator;
+        this.searchMetrics = searchMetrics;
+        this.searchExecutor = searchExecutor;
+    }
+
+    @CircuitBreaker(name = "complexQuery", fallbackMethod = "complexQueryStreamFallBack")
+    @Bulkhead(name = "complexQuery")
+    public CompletableFuture<StreamingResponseBody> complexQueryStream(final ComplexQueryRequestModel complexQueryRequestModel) {
+        return supplyOnSearchExecutor(() -> cachedResult(complexQueryRequestModel))
+                .thenCompose(cachedResult -> cachedResult.isPresent()
+                        ? CompletableFuture.completedFuture(cachedBody(cachedResult.get()))
+                        : search(complexQueryRequestModel)
+                        .thenApply(response -> streamedBody(response, complexQueryRequestModel)));
+    }
+
+    private CompletableFuture<StreamingResponseBody> complexQueryStreamFallBack(final ComplexQueryRequestModel complexQueryRequestModel,
+                                                                               final Throwable throwable) {
+        final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                || cause instanceof ConcurrencyLimitExceededException
+                || cause instanceof RejectedExecutionException) {
+            searchMetrics.fallback(Fallback.OVERLOADED);
+            return CompletableFuture.failedFuture(new ServiceOverloadedException(cause));
+        }
+        return CompletableFuture.failedFuture(cause);
+    }
+
+    private CompletableFuture<Response> search(final ComplexQueryRequestModel complexQueryRequestModel) {
+        final SearchCursor cursor = this.queryBuilder.readCursor(complexQueryRequestModel);
+        final SearchRequest.Builder builder = new SearchRequest.Builder()
+                .size(complexQueryRequestModel.getSize())
+                .query(searchMetrics.record(Stage.BUILD, () -> this.queryBuilder.buildQuery(complexQueryRequestModel)))
+                .trackTotalHits(this.queryBuilder.buildTrackTotalHits(complexQueryRequestModel))
+                .aggregations(this.queryBuilder.buildAggregationFilters())
+                .source(source -> source.filter(filter -> filter.includes(SOURCE_FIELDS)));
+        final List<SortOptions> sort = this.queryBuilder.buildSort(complexQueryRequestModel);
+        if (!sort.isEmpty()) {
+            builder.sort(sort);
+        }
+        if (cursor != null) {
+            builder.searchAfter(cursor.getSearchAfter());
+        } else {
+            builder.from(complexQueryRequestModel.getFrom());
+        }
+        final SearchRequest searchRequest = builder.build();
+
+        final Request request = new Request("POST", "/" + index + "/_search");
+        request.addParameter("filter_path", FILTER_PATH);
+        request.setEntity(new ByteArrayEntity(toJson(searchRequest), ContentType.APPLICATION_JSON));
+        return withTimeout(searchMetrics.recordLeg(Stage.HITS,
+                () -> concurrencyLimiter.execute(() -> performRequest(request))), hitsTimeoutMillis);
+    }
+
+    private CompletableFuture<Response> performRequest(final Request request) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        final Cancellable cancellable = restClient.performRequestAsync(request, new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                future.completeExceptionally(exception);
+            }
+        });
+        future.whenComplete((response, throwable) -> {
+            if (future.isCancelled()) {
+                cancellable.cancel();
+            }
+        });
+        return future;
+    }
+
+    private StreamingResponseBody streamedBody(final Response response,
+                                               final ComplexQueryRequestModel complexQueryRequestModel) {
+        return outputStream -> {
+            final long start = System.nanoTime();
+            try (InputStream content = response.getEntity().getContent()) {
+                writeResponse(content, outputStream, complexQueryRequestModel);
+            } finally {
+                searchMetrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+            }
+        };
+    }
+
+    private StreamingResponseBody cachedBody(final SearchResponseModel searchResponseModel) {
+        searchMetrics.recordResult(searchResponseModel);
+        return outputStream -> {
+            final long start = System.nanoTime();
+            try {
+                objectMapper.writeValue(outputStream, searchResponseModel);
+            } finally {
+                searchMetrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+            }
+        };
+    }
+
+    private Optional<SearchResponseModel> cachedResult(final ComplexQueryRequestModel complexQueryRequestModel) {
+        try {
+            final Cache cache = cacheManager.getCache(COMPLEX_QUERY_CACHE);
+            if (cache == null) {
+                return Optional.empty();
+            }
+            final Cache.ValueWrapper cached = cache.get(complexQueryKeyGenerator.key(complexQueryRequestModel));
+            return cached != null && cached.get() instanceof SearchResponseModel searchResponseModel
+                    ? Optional.of(searchResponseModel)
+                    : Optional.empty();
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the cached result", e);
+            return Optional.empty();
+        }
+    }
+
+    private <T> CompletableFuture<T> supplyOnSearchExecutor(final Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, searchExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    void writeResponse(final InputStream searchResponse, final OutputStream outputStream,
+                       final ComplexQueryRequestModel complexQueryRequestModel) throws IOException {
+        final StreamedResult streamedResult = new StreamedResult();
+        try (JsonParser parser = jsonFactory.createParser(searchResponse);
+             JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            boolean filtersWritten = false;
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                parser.nextToken();
+                if ("hits".equals(field)) {
+                    copyHits(parser, generator, streamedResult);
+                } else if ("aggregations".equals(field)) {
+                    copyFacets(parser, generator, streamedResult);
+                    filtersWritten = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!filtersWritten) {
+                generator.writeNullField("filters");
+            }
+            generator.writeObjectFieldStart("pagination");
+            generator.writeNumberField("size", complexQueryRequestModel.getSize());
+            generator.writeNumberField("from", complexQueryRequestModel.getFrom());
+            generator.writeStringField("cursor", this.queryBuilder.nextCursor(streamedResult.lastSort,
+                    streamedResult.products, complexQueryRequestModel, null));
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        searchMetrics.recordResult(streamedResult.hits, streamedResult.products, streamedResult.facetBuckets);
+    }
+
+    private static void copyHits(final JsonParser parser, final JsonGenerator generator,
+                                 final StreamedResult streamedResult) throws IOException {
+        boolean productsWritten = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            if ("total".equals(field)) {
+                generator.writeFieldName("hits");
+                copyTotal(parser, generator, streamedResult);
+            } else if ("hits".equals(field)) {
+                generator.writeArrayFieldStart("products");
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    streamedResult.products++;
+                    streamedResult.lastSort = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        final String hitField = parser.currentName();
+                        parser.nextToken();
+                        if ("_source".equals(hitField)) {
+                            generator.copyCurrentStructure(parser);
+                        } else if ("sort".equals(hitField) && parser.currentToken() == JsonToken.START_ARRAY) {
+                            final List<String> sortValues = new ArrayList<>();
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                sortValues.add(parser.getValueAsString());
+                            }
+                            streamedResult.lastSort = sortValues;
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+                generator.writeEndArray();
+                productsWritten = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!productsWritten) {
+            generator.writeArrayFieldStart("products");
+            generator.writeEndArray();
+        }
+    }
+
+    private static void copyTotal(final JsonParser parser, final JsonGenerator generator,
+                                  final StreamedResult streamedResult) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            streamedResult.hits = parser.getLongValue();
+            generator.copyCurrentEvent(parser);
+            return;
+        }
+        long total = 0;
+        boolean exact = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            if ("value".equals(field)) {
+                total = parser.getLongValue();
+            } else if ("relation".equals(field)) {
+                exact = "eq".equals(parser.getValueAsString());
+            }
+        }
+        streamedResult.hits = total;
+        generator.writeNumber(total);
+        generator.writeBooleanField("exact", exact);
+    }
+
+    private static void copyFacets(final JsonParser parser, final JsonGenerator generator,
+                                   final StreamedResult streamedResult) throws IOException {
+        generator.writeObjectFieldStart("filters");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            generator.writeObjectFieldStart(parser.currentName());
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                if (parser.currentToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    String key = null;
+                    long docCount = 0;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        final String field = parser.currentName();
+                        parser.nextToken();
+                        if ("key".equals(field)) {
+                            key = parser.getValueAsString();
+                        } else if ("doc_count".equals(field)) {
+                            docCount = parser.getLongValue();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    if (key != null) {
+                        generator.writeNumberField(key, docCount);
+                        streamedResult.facetBuckets++;
+                    }
+                }
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private byte[] toJson(final SearchRequest searchRequest) {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        try (jakarta.json.stream.JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(body)) {
+            searchRequest.serialize(generator, jsonpMapper);
+        }
+        return body.toByteArray();
+    }
+
+    private static <T> CompletableFuture<T> withTimeout(final CompletableFuture<T> future, final long timeoutMillis) {
+        final CompletableFuture<T> timed = future.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        timed.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                future.cancel(true);
+            }
+        });
+        return timed;
+    }
+
+    private static final class StreamedResult {
+        private Long hits;
+        private int products;
+        private int facetBuckets;
+        private List<String> lastSort;
+    }
+}
@@ -0,0 +1,219 @@
+package com.edu.salem.service.hotset;
+
+import com.edu.salem.cache.ComplexQueryKeys;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.PaginationModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.query.QuerySettings;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public final class HotSetIndex {
+
+    public static final List<String> FILTER_FIELDS = List.of("category", "entity");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int DEFAULT_FACET_SIZE = 10;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private final Product[] products;
+    private final int[] lengths;
+    private final float averageLength;
+    private final Map<String, Postings> postings;
+    private final Map<String, Map<String, RoaringBitmap>> filterBitmaps;
+
+    private HotSetIndex(final Product[] products, final int[] lengths, final Map<String, Postings> postings,
+                        final Map<String, Map<String, RoaringBitmap>> filterBitmaps) {
+        this.products = products;
+        this.lengths = lengths;
+        this.postings = postings;
+        this.filterBitmaps = filterBitmaps;
+        long total = 0;
+        for (int length : lengths) {
+            total += length;
+        }
+        this.averageLength = lengths.length == 0 ? 1 : Math.max(1, (float) total / lengths.length);
+    }
+
+    public static HotSetIndex build(final List<Product> catalog) {
+        final Product[] products = catalog.toArray(new Product[0]);
+        final int[] lengths = new int[products.length];
+        final Map<String, PostingsBuilder> builders = new HashMap<>();
+        final Map<String, Map<String, RoaringBitmap>> filterBitmaps = new LinkedHashMap<>();
+        for (String field : FILTER_FIELDS) {
+            filterBitmaps.put(field, new HashMap<>());
+        }
+
+        for (int doc = 0; doc < products.length; doc++) {
+            final Product product = products[doc];
+            final List<String> tokens = new ArrayList<>(tokenize(product.getTitle()));
+            tokens.addAll(tokenize(product.getEntity()));
+            lengths[doc] = tokens.size();
+            for (String token : tokens) {
+                builders.computeIfAbsent(token, t -> new PostingsBuilder()).add(doc);
+            }
+            addFilter(filterBitmaps, "category", product.getCategory(), doc);
+            addFilter(filterBitmaps, "entity", product.getEntity(), doc);
+        }
+
+        final Map<String, Postings> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((token, builder) -> postings.put(token, builder.build()));
+        filterBitmaps.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        return new HotSetIndex(products, lengths, postings, filterBitmaps);
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    public SearchResponseModel search(final ComplexQueryRequestModel complexQueryRequestModel,
+                                      final List<QuerySettings.FacetSettings> facets) {
+        final List<String> tokens = tokenize(complexQueryRequestModel.getQueryTerm()).stream().distinct().toList();
+        final RoaringBitmap matches = match(tokens, complexQueryRequestModel.getFilters());
+
+        final int[] docs = matches.toArray();
+        final float[] scores = new float[docs.length];
+        for (String token : docs.length == 0 ? List.<String>of() : tokens) {
+            final Postings tokenPostings = postings.get(token);
+            final float idf = (float) Math.log(1 + (products.length - tokenPostings.docs.length + 0.5)
+                    / (tokenPostings.docs.length + 0.5));
+            for (int i = 0; i < docs.length; i++) {
+                final int frequency = tokenPostings.frequency(docs[i]);
+                scores[i] += idf * frequency * (K1 + 1)
+                        / (frequency + K1 * (1 - B + B * lengths[docs[i]] / averageLength));
+            }
+        }
+
+        final Integer[] order = new Integer[docs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> -scores[i])
+                .thenComparing(i -> products[docs[i]].getId(), Comparator.nullsLast(Comparator.naturalOrder())));
+
+        final int from = Math.min(complexQueryRequestModel.getFrom(), docs.length);
+        final int to = Math.min(from + complexQueryRequestModel.getSize(), docs.length);
+        final List<Product> page = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            page.add(products[docs[order[i]]]);
+        }
+
+        return new SearchResponseModel.Builder((long) docs.length, page, facets(matches, facets))
+                .setPaginationModel(new PaginationModel(complexQueryRequestModel.getSize(),
+                        complexQueryRequestModel.getFrom()))
+                .build();
+    }
+
+    private RoaringBitmap match(final List<String> tokens, final Map<String, String> filters) {
+        if (tokens.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        final List<Postings> tokenPostings = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            final Postings posting = postings.get(token);
+            if (posting == null) {
+                return new RoaringBitmap();
+            }
+            tokenPostings.add(posting);
+        }
+        tokenPostings.sort(Comparator.comparingInt(posting -> posting.docs.length));
+
+        final RoaringBitmap matches = RoaringBitmap.bitmapOf(tokenPostings.get(0).docs);
+        for (int i = 1; i < tokenPostings.size() && !matches.isEmpty(); i++) {
+            matches.and(RoaringBitmap.bitmapOf(tokenPostings.get(i).docs));
+        }
+        if (filters != null) {
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                final RoaringBitmap values = filterBitmaps.getOrDefault(filter.getKey(), Map.of())
+                        .get(filter.getValue());
+                if (values == null) {
+                    return new RoaringBitmap();
+                }
+                matches.and(values);
+            }
+        }
+        return matches;
+    }
+
+    private Map<String, Map<String, Long>> facets(final RoaringBitmap matches,
+                                                  final List<QuerySettings.FacetSettings> facetSettings) {
+        final Map<String, Map<String, Long>> facets = new HashMap<>();
+        for (QuerySettings.FacetSettings facet : facetSettings) {
+            final Map<String, RoaringBitmap> values = filterBitmaps.get(facet.field());
+            if (values == null) {
+                continue;
+            }
+            final Map<String, Long> counts = new HashMap<>();
+            values.entrySet().stream()
+                    .map(value -> Map.entry(value.getKey(), (long) RoaringBitmap.andCardinality(matches, value.getValue())))
+                    .filter(count -> count.getValue() > 0)
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(facet.size() == null ? DEFAULT_FACET_SIZE : facet.size())
+                    .forEach(count -> counts.put(count.getKey(), count.getValue()));
+            facets.put(facet.field(), counts);
+        }
+        return facets;
+    }
+
+    private static void addFilter(final Map<String, Map<String, RoaringBitmap>> filterBitmaps,
+                                  final String field, final String value, final int doc) {
+        if (value != null) {
+            filterBitmaps.get(field).computeIfAbsent(value, v -> new RoaringBitmap()).add(doc);
+        }
+    }
+
+    static List<String> tokenize(final String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(ComplexQueryKeys.normalizeQueryTerm(text)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static final class Postings {
+        private final int[] docs;
+        private final int[] frequencies;
+
+        private Postings(final int[] docs, final int[] frequencies) {
+            this.docs = docs;
+            this.frequencies = frequencies;
+        }
+
+        private int frequency(final int doc) {
+            final int position = Arrays.binarySearch(docs, doc);
+            return position < 0 ? 0 : frequencies[position];
+        }
+    }
+
+    private static final class PostingsBuilder {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(final int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                frequencies[size - 1]++;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size++] = 1;
+        }
+
+        private Postings build() {
+            return new Postings(Arrays.copyOf(docs, size), Arrays.copyOf(frequencies, size));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.edu.salem.service.hotset;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.OpenSearchService;
+import com.edu.salem.service.RetrievalMode;
+import com.edu.salem.service.SearchService;
+import com.edu.salem.service.query.QueryBuilder;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+@Component
+@Primary
+@ConditionalOnProperty(name = "management.service.hotSet.enabled", havingValue = "true")
+public class HotSetSearchService implements SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotSetSearchService.class);
+    private static final String ERROR_OCCURRED = "Error Occurred, ";
+    private static final String SEQ_NO_SUM = "seqNoSum";
+    private final OpenSearchService openSearchService;
+    private final OpenSearchAsyncClient client;
+    private final QueryBuilder queryBuilder;
+    private final String index;
+    private final String sliceField;
+    private final Set<String> sliceValues;
+    private final int maxDocuments;
+    private final int pageSize;
+    private final int maxWindow;
+    private final RetrievalMode retrievalMode;
+    private volatile HotSetIndex hotSetIndex;
+    private volatile SliceFingerprint loadedFingerprint;
+
+    public HotSetSearchService(@Value("${management.data.openSearch.productIndex}") final String index,
+                               @Value("${management.service.hotSet.sliceField:category}") final String sliceField,
+                               @Value("${management.service.hotSet.sliceValues:}") final Set<String> sliceValues,
+                               @Value("${management.service.hotSet.maxDocuments:100000}") final int maxDocuments,
+                               @Value("${management.service.hotSet.pageSize:1000}") final int pageSize,
+                               @Value("${management.service.hotSet.maxWindow:1000}") final int maxWindow,
+                               @Value("${management.service.search.vector.retrieval:LEXICAL}") final RetrievalMode retrievalMode,
+                               final OpenSearchService openSearchService,
+                               final OpenSearchAsyncClient client,
+                               final QueryBuilder queryBuilder) {
+        if (!HotSetIndex.FILTER_FIELDS.contains(sliceField)) {
+            throw new IllegalArgumentException("Hot set slice field must be one of " + HotSetIndex.FILTER_FIELDS);
+        }
+        this.index = index;
+        this.sliceField = sliceField;
+        this.sliceValues = sliceValues;
+        this.maxDocuments = maxDocuments;
+        this.pageSize = pageSize;
+        this.maxWindow = maxWindow;
+        this.retrievalMode = retrievalMode;
+        this.openSearchService = openSearchService;
+        this.client = client;
+        this.queryBuilder = queryBuilder;
+    }
+
+    @Override
+    public Optional<SearchResponseModel> complexQuery(ComplexQueryRequestModel complexQueryRequestModel) throws IOException {
+        final HotSetIndex current = this.hotSetIndex;
+        if (accepts(current, complexQueryRequestModel)) {
+            return Optional.of(search(current, complexQueryRequestModel));
+        }
+        return openSearchService.complexQuery(complexQueryRequestModel);
+    }
+
+    @Override
+    public CompletableFuture<Optional<SearchResponseModel>> complexQueryAsync(ComplexQueryRequestModel complexQueryRequestModel) {
+        final HotSetIndex current = this.hotSetIndex;
+        if (accepts(current, complexQueryRequestModel)) {
+            return CompletableFuture.completedFuture(Optional.of(search(current, complexQueryRequestModel)));
+        }
+        return openSearchService.complexQueryAsync(complexQueryRequestModel);
+    }
+
+    @Override
+    public CompletableFuture<List<Optional<SearchResponseModel>>> complexQueryBatchAsync(List<ComplexQueryRequestModel> complexQueryRequestModels) {
+        final HotSetIndex current = this.hotSetIndex;
+        final List<ComplexQueryRequestModel> misses = new ArrayList<>();
+        for (ComplexQueryRequestModel complexQueryRequestModel : complexQueryRequestModels) {
+            if (!accepts(current, complexQueryRequestModel)) {
+                misses.add(complexQueryRequestModel);
+            }
+        }
+        final CompletableFuture<List<Optional<SearchResponseModel>>> missResults = misses.isEmpty()
+                ? CompletableFuture.completedFuture(List.of())
+                : openSearchService.complexQueryBatchAsync(misses);
+
+        return missResults.thenApply(remote -> {
+            final List<Optional<SearchResponseModel>> results = new ArrayList<>(complexQueryRequestModels.size());
+            int miss = 0;
+            for (ComplexQueryRequestModel complexQueryRequestModel : complexQueryRequestModels) {
+                results.add(accepts(current, complexQueryRequestModel)
+                        ? Optional.of(search(current, complexQueryRequestModel))
+                        : remote.get(miss++));
+            }
+            return results;
+        });
+    }
+
+    public boolean isLoaded() {
+        return hotSetIndex != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${management.service.hotSet.refreshMillis:60000}",
+            initialDelayString = "${management.service.hotSet.refreshMillis:60000}")
+    public void refresh() {
+        if (sliceValues.isEmpty()) {
+            return;
+        }
+        try {
+            final SliceFingerprint fingerprint = fingerprint();
+            if (hotSetIndex != null && fingerprint.equals(loadedFingerprint)) {
+                return;
+            }
+            final List<Product> catalog = fingerprint.documents() > maxDocuments ? null : loadSlice();
+            if (catalog == null) {
+                logger.warn("Hot set slice exceeds {} documents, serving everything from OpenSearch", maxDocuments);
+                this.hotSetIndex = null;
+                this.loadedFingerprint = null;
+                return;
+            }
+            this.hotSetIndex = HotSetIndex.build(catalog);
+            this.loadedFingerprint = fingerprint;
+            logger.info("Hot set reloaded with {} products for {} {}", catalog.size(), sliceField, sliceValues);
+        } catch (InterruptedException e) {
+            logger.error(ERROR_OCCURRED, e);
+            Thread.currentThread().interrupt();
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            logger.error(ERROR_OCCURRED, e);
+        }
+    }
+
+    boolean accepts(final HotSetIndex current, final ComplexQueryRequestModel complexQueryRequestModel) {
+        if (current == null) {
+            return false;
+        }
+        final String cursor = complexQueryRequestModel.getCursor();
+        final Map<String, String> filters = complexQueryRequestModel.getFilters();
+        return retrievalMode == RetrievalMode.LEXICAL
+                && (cursor == null || cursor.isBlank())
+                && !queryBuilder.isOrdered(complexQueryRequestModel)
+                && filters != null
+                && sliceValues.contains(filters.get(sliceField))
+                && HotSetIndex.FILTER_FIELDS.containsAll(filters.keySet())
+                && complexQueryRequestModel.getFrom() + complexQueryRequestModel.getSize() <= maxWindow;
+    }
+
+    private SearchResponseModel search(final HotSetIndex current, final ComplexQueryRequestModel complexQueryRequestModel) {
+        return current.search(complexQueryRequestModel, queryBuilder.getQuerySettings().getFacets());
+    }
+
+    // Any write to the slice raises a document's _seq_no or changes the count, so a probe that matches the loaded
+    // fingerprint means there is nothing to reload.
+    private SliceFingerprint fingerprint() throws IOException, ExecutionException, InterruptedException {
+        final SearchResponse<Void> response = client.search(s -> s
+                .index(this.index)
+                .size(0)
+                .trackTotalHits(t -> t.enabled(true))
+                .query(sliceQuery())
+                .aggregations(SEQ_NO_SUM, a -> a.sum(sum -> sum.field("_seq_no"))), Void.class).get();
+        return new SliceFingerprint(response.hits().total().value(),
+                response.aggregations().get(SEQ_NO_SUM).sum().value());
+    }
+
+    private Query sliceQuery() {
+        final List<FieldValue> values = sliceValues.stream().map(FieldValue::of).toList();
+        return Query.of(q -> q.terms(t -> t.field(sliceField).terms(v -> v.value(values))));
+    }
+
+    private List<Product> loadSlice() throws IOException, ExecutionException, InterruptedException {
+        final Query sliceQuery = sliceQuery();
+        final List<Product> catalog = new ArrayList<>();
+        List<String> searchAfter = null;
+        while (true) {
+            final List<String> after = searchAfter;
+            final SearchResponse<Product> response = client.search(s -> {
+                s.index(this.index)
+                        .size(pageSize)
+                        .query(sliceQuery)
+                        .sort(this.queryBuilder.buildTieBreakerSort());
+                return after == null ? s : s.searchAfter(after);
+            }, Product.class).get();
+            final List<Hit<Product>> hits = response.hits().hits();
+            for (Hit<Product> hit : hits) {
+                catalog.add(hit.source());
+            }
+            if (catalog.size() > maxDocuments) {
+                return null;
+            }
+            if (hits.size() < pageSize) {
+                return catalog;
+            }
+            searchAfter = hits.get(hits.size() - 1).sort();
+        }
+    }
+
+    private record SliceFingerprint(long documents, double seqNoSum) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.edu.salem.service.metrics;
+
+import com.edu.salem.model.SearchResponseModel;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.opensearch.client.opensearch.core.MsearchResponse;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class SearchMetrics {
+
+    public enum Stage {
+        KEY, BUILD, HITS, AGGREGATIONS, KNN, CONVERSION, SERIALIZATION;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Fallback {
+        STALE, OVERLOADED, HITS_ONLY;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final String COMPLEX_QUERY = "complexQuery";
+    private final ObservationRegistry observationRegistry;
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<Stage, Timer> took = new EnumMap<>(Stage.class);
+    private final Map<Stage, Timer> overhead = new EnumMap<>(Stage.class);
+    private final Map<Fallback, Counter> fallbacks = new EnumMap<>(Fallback.class);
+    private final DistributionSummary products;
+    private final DistributionSummary facetBuckets;
+    private final DistributionSummary totalHits;
+
+    public SearchMetrics(@Value("${management.service.metrics.tracing.enabled:false}") final boolean tracingEnabled,
+                         final MeterRegistry meterRegistry,
+                         final ObjectProvider<ObservationRegistry> observationRegistry,
+                         final ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry) {
+        this.observationRegistry = tracingEnabled
+                ? observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)
+                : ObservationRegistry.NOOP;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("salem.search.stage")
+                    .description("Wall time of each complexQuery stage")
+                    .tag("stage", stage.tag)
+                    .register(meterRegistry));
+        }
+        for (Stage leg : new Stage[]{Stage.HITS, Stage.AGGREGATIONS, Stage.KNN}) {
+            took.put(leg, Timer.builder("salem.search.opensearch.took")
+                    .description("Server side time reported by OpenSearch")
+                    .tag("leg", leg.tag)
+                    .register(meterRegistry));
+            overhead.put(leg, Timer.builder("salem.search.opensearch.overhead")
+                    .description("Wall time of the leg minus the took reported by OpenSearch")
+                    .tag("leg", leg.tag)
+                    .register(meterRegistry));
+        }
+        for (Fallback fallback : Fallback.values()) {
+            fallbacks.put(fallback, Counter.builder("salem.search.fallbacks")
+                    .tag("name", COMPLEX_QUERY)
+                    .tag("outcome", fallback.tag)
+                    .register(meterRegistry));
+        }
+        this.products = DistributionSummary.builder("salem.search.results.products").register(meterRegistry);
+        this.facetBuckets = DistributionSummary.builder("salem.search.results.facets").register(meterRegistry);
+        this.totalHits = DistributionSummary.builder("salem.search.results.hits").register(meterRegistry);
+        circuitBreakerRegistry.ifAvailable(registry -> registry.circuitBreaker(COMPLEX_QUERY)
+                .getEventPublisher()
+                .onStateTransition(event -> Counter.builder("salem.search.circuitbreaker.transitions")
+                        .tag("name", event.getCircuitBreakerName())
+                        .tag("from", event.getStateTransition().getFromState().name().toLowerCase(Locale.ROOT))
+                        .tag("to", event.getStateTransition().getToState().name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry)
+                        .increment()));
+    }
+
+    public <T> T record(final Stage stage, final Supplier<T> supplier) {
+        final long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void record(final Stage stage, final long nanos) {
+        stages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> CompletableFuture<T> recordLeg(final Stage leg, final Supplier<CompletableFuture<T>> call) {
+        final Observation observation = Observation.createNotStarted("salem.search.leg", observationRegistry)
+                .lowCardinalityKeyValue("leg", leg.tag)
+                .start();
+        final long start = System.nanoTime();
+        final CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            observation.error(e).stop();
+            throw e;
+        }
+        future.whenComplete((result, throwable) -> {
+            final long wall = System.nanoTime() - start;
+            record(leg, wall);
+            final long tookMillis = tookMillis(result);
+            if (tookMillis >= 0 && took.containsKey(leg)) {
+                took.get(leg).record(tookMillis, TimeUnit.MILLISECONDS);
+                overhead.get(leg).record(Math.max(0, wall - TimeUnit.MILLISECONDS.toNanos(tookMillis)),
+                        TimeUnit.NANOSECONDS);
+            }
+            if (throwable != null) {
+                observation.error(throwable);
+            }
+            observation.stop();
+        });
+        return future;
+    }
+
+    public SearchResponseModel recordResult(final SearchResponseModel searchResponseModel) {
+        if (searchResponseModel != null) {
+            recordResult(searchResponseModel.getHits(),
+                    searchResponseModel.getProducts() == null ? 0 : searchResponseModel.getProducts().size(),
+                    searchResponseModel.getFilters() == null ? 0 : searchResponseModel.getFilters().values()
+                            .stream()
+                            .mapToInt(Map::size)
+                            .sum());
+        }
+        return searchResponseModel;
+    }
+
+    public void recordResult(final Long hits, final int productCount, final int facetBucketCount) {
+        products.record(productCount);
+        facetBuckets.record(facetBucketCount);
+        if (hits != null) {
+            totalHits.record(hits);
+        }
+    }
+
+    public void fallback(final Fallback fallback) {
+        fallbacks.get(fallback).increment();
+    }
+
+    private static long tookMillis(final Object result) {
+        if (result instanceof SearchResponse<?> searchResponse) {
+            return searchResponse.took();
+        }
+        if (result instanceof MsearchResponse<?> multiSearchResponse) {
+            return multiSearchResponse.took();
+        }
+        return -1;
+    }
+}
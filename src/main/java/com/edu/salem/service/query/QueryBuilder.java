@@ -1,17 +1,25 @@
 package com.edu.salem.service.query;
 
 import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Order;
 import com.edu.salem.model.PaginationModel;
 import com.edu.salem.model.Product;
 import com.edu.salem.model.SearchResponseModel;
 import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch._types.SortOptions;
+import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.aggregations.Aggregate;
 import org.opensearch.client.opensearch._types.aggregations.Aggregation;
 import org.opensearch.client.opensearch._types.aggregations.StringTermsBucket;
 import org.opensearch.client.opensearch._types.aggregations.TermsAggregation;
+import org.opensearch.client.opensearch._types.aggregations.TermsAggregationExecutionHint;
 import org.opensearch.client.opensearch._types.query_dsl.*;
 import org.opensearch.client.opensearch.core.SearchResponse;
 import org.opensearch.client.opensearch.core.search.Hit;
 import org.opensearch.client.opensearch.core.search.HitsMetadata;
+import org.opensearch.client.opensearch.core.search.TotalHits;
+import org.opensearch.client.opensearch.core.search.TotalHitsRelation;
+import org.opensearch.client.opensearch.core.search.TrackHits;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -19,113 +27,279 @@ import java.util.*;
 
 @Component
 public class QueryBuilder {
-    private static final List<String> DEFAULT_SEARCHABLE_FIELDS = Arrays.asList("title", "entity");
-
-    private static final List<String> DEFAULT_AGGREGATION_FIELDS = Arrays.asList("category", "entity");
     private final Double tieBreaker;
+    private final boolean cursorEnabled;
+    private final List<SortOptions> cursorSort;
+    private final SortOptions tieBreakerSort;
+    private final Map<Order, List<SortOptions>> orderSorts = new EnumMap<>(Order.class);
+    private final Map<Order, List<SortOptions>> unpagedOrderSorts = new EnumMap<>(Order.class);
+    private final int trackTotalHits;
+    private volatile CompiledQuery compiledQuery;
 
-    public QueryBuilder(@Value("${management.data.openSearch.tieBreaker}") final Double tieBreaker) {
+    public QueryBuilder(@Value("${management.data.openSearch.tieBreaker}") final Double tieBreaker,
+                        @Value("${management.service.pagination.cursor.enabled:false}") final boolean cursorEnabled,
+                        @Value("${management.service.pagination.cursor.tieBreakerField:id}") final String tieBreakerField,
+                        @Value("${management.service.search.sort.field:}") final String sortField,
+                        @Value("${management.service.search.trackTotalHits:10000}") final int trackTotalHits,
+                        final QuerySettings querySettings) {
         this.tieBreaker = tieBreaker;
+        this.cursorEnabled = cursorEnabled;
+        this.trackTotalHits = trackTotalHits;
+        this.tieBreakerSort = SortOptions.of(so -> so.field(f -> f.field(tieBreakerField).order(SortOrder.Asc)));
+        this.cursorSort = List.of(SortOptions.of(so -> so.score(sc -> sc.order(SortOrder.Desc))), tieBreakerSort);
+        if (sortField != null && !sortField.isBlank()) {
+            // Cursor pages resume from the sort values of a first page served without a point in time, so they
+            // keep the tie-breaker and terminate early only on an index sorted by (sortField, tieBreakerField).
+            for (Order order : Order.values()) {
+                final SortOptions orderSort = fieldSort(sortField.trim(),
+                        order == Order.ASC ? SortOrder.Asc : SortOrder.Desc);
+                unpagedOrderSorts.put(order, List.of(orderSort));
+                orderSorts.put(order, cursorEnabled ? List.of(orderSort, tieBreakerSort) : List.of(orderSort));
+            }
+        }
+        this.compiledQuery = compile(querySettings);
     }
 
-    public Query buildQuery(final ComplexQueryRequestModel complexQueryRequestModel) {
+    public QuerySettings getQuerySettings() {
+        return compiledQuery.querySettings();
+    }
 
-        BoolQuery filterQueries = buildFilterQueries(complexQueryRequestModel);
+    public void reload(final QuerySettings querySettings) {
+        this.compiledQuery = compile(querySettings);
+    }
 
-        Query query = MultiMatchQuery.of(m -> m
-                .fields(DEFAULT_SEARCHABLE_FIELDS)
-                .operator(Operator.And)
-                .tieBreaker(tieBreaker)
-                .type(TextQueryType.CrossFields)
-                .query(complexQueryRequestModel.getQueryTerm())
-        ).toQuery();
+    public boolean isCursorEnabled() {
+        return cursorEnabled;
+    }
 
-        BoolQuery queryComplex =
-                QueryBuilders.bool()
-                        .must(query)
-                        .filter(filterQueries.filter()).build();
+    public List<SortOptions> buildCursorSort() {
+        return cursorSort;
+    }
+
+    public SortOptions buildTieBreakerSort() {
+        return tieBreakerSort;
+    }
+
+    public boolean isOrdered(final ComplexQueryRequestModel complexQueryRequestModel) {
+        return complexQueryRequestModel.getOrder() != null && orderSorts.containsKey(complexQueryRequestModel.getOrder());
+    }
+
+    public List<SortOptions> buildSort(final ComplexQueryRequestModel complexQueryRequestModel) {
+        if (isOrdered(complexQueryRequestModel)) {
+            return orderSorts.get(complexQueryRequestModel.getOrder());
+        }
+        return cursorEnabled ? cursorSort : List.of();
+    }
+
+    public List<SortOptions> buildUnpagedSort(final ComplexQueryRequestModel complexQueryRequestModel) {
+        return isOrdered(complexQueryRequestModel) ? unpagedOrderSorts.get(complexQueryRequestModel.getOrder()) : List.of();
+    }
+
+    public Integer totalHitsThreshold(final ComplexQueryRequestModel complexQueryRequestModel) {
+        return trackTotalHits <= 0 || Boolean.TRUE.equals(complexQueryRequestModel.getExactHits())
+                ? null
+                : trackTotalHits;
+    }
 
+    public TrackHits buildTrackTotalHits(final ComplexQueryRequestModel complexQueryRequestModel) {
+        final Integer threshold = totalHitsThreshold(complexQueryRequestModel);
+        return TrackHits.of(t -> threshold == null ? t.enabled(true) : t.count(threshold));
+    }
+
+    public SearchCursor readCursor(final ComplexQueryRequestModel complexQueryRequestModel) {
+        return cursorEnabled ? SearchCursor.decode(complexQueryRequestModel.getCursor()) : null;
+    }
+
+    public byte[] renderSearch(final ComplexQueryRequestModel complexQueryRequestModel, final SearchCursor cursor,
+                               final boolean hits, final boolean aggregations) {
+        return compiledQuery.queryTemplate().renderSearch(complexQueryRequestModel, cursor, hits, aggregations,
+                cursorEnabled, totalHitsThreshold(complexQueryRequestModel));
+    }
+
+    public byte[] renderPointInTimeSearch(final ComplexQueryRequestModel complexQueryRequestModel,
+                                          final SearchCursor cursor, final String pitId, final String keepAlive) {
+        return compiledQuery.queryTemplate().renderPointInTimeSearch(complexQueryRequestModel, cursor, pitId, keepAlive,
+                totalHitsThreshold(complexQueryRequestModel));
+    }
+
+    public String renderMustacheTemplate() {
+        return compiledQuery.queryTemplate().toMustache();
+    }
+
+    public Query buildQuery(final ComplexQueryRequestModel complexQueryRequestModel) {
+        final List<String> searchableFields = compiledQuery.searchableFields();
         return new Query.Builder()
-                .bool(queryComplex)
+                .bool(b -> b
+                        .must(multiMatch(searchableFields, complexQueryRequestModel.getQueryTerm()))
+                        .filter(buildFilterQueries(complexQueryRequestModel).filter()))
                 .build();
     }
 
     public static BoolQuery buildFilterQueries(final ComplexQueryRequestModel complexQueryRequestModel) {
 
         final Map<String, String> filters = complexQueryRequestModel.getFilters();
-        List<Query> queries = new ArrayList<>();
+        final List<Query> queries = new ArrayList<>(filters.size());
 
         for (Map.Entry<String, String> filter : filters.entrySet()) {
-            List<TermsQuery> terms = new ArrayList<>();
-            List<FieldValue> fieldValues = new ArrayList<>();
-            fieldValues.add(FieldValue.of(filter.getValue()));
-
-            TermsQuery termsQuery = TermsQuery.of(ts -> ts
+            queries.add(TermsQuery.of(ts -> ts
                     .field(filter.getKey())
-                    .terms(TermsQueryField.of(t -> t.value(fieldValues))));
-            terms.add(termsQuery);
-
-            Query query = new Query.Builder()
-                    .terms(termsQuery)
-                    .build();
-            queries.add(query);
+                    .terms(t -> t.value(List.of(FieldValue.of(filter.getValue()))))).toQuery());
         }
 
-        BoolQuery.Builder boolQuery = new BoolQuery.Builder().filter(queries);
-        return boolQuery.build();
+        return new BoolQuery.Builder().filter(queries).build();
     }
 
     public Map<String, Aggregation> buildAggregationFilters() {
-        Map<String, Aggregation> filters = new HashMap<>();
+        return compiledQuery.aggregationFilters();
+    }
 
-        for (String attribute : DEFAULT_AGGREGATION_FIELDS) {
-            Aggregation aggregationCategory = new Aggregation.Builder()
-                    .terms(new TermsAggregation.Builder().field(attribute).build())
-                    .build();
-            filters.put(attribute, aggregationCategory);
+    private CompiledQuery compile(final QuerySettings querySettings) {
+        final List<String> searchableFields = querySettings.searchableFieldsWithBoosts();
+        final Map<String, Aggregation> aggregationFilters = compileAggregationFilters(querySettings.getFacets());
+        return new CompiledQuery(querySettings, searchableFields, aggregationFilters,
+                new QueryTemplate(multiMatch(searchableFields, QueryTemplate.QUERY_TERM_PLACEHOLDER),
+                        aggregationFilters, cursorSort, orderSorts));
+    }
+
+    private static SortOptions fieldSort(final String field, final SortOrder order) {
+        return SortOptions.of(so -> so.field(f -> f.field(field).order(order)));
+    }
+
+    private Query multiMatch(final List<String> searchableFields, final String queryTerm) {
+        return MultiMatchQuery.of(m -> m
+                .fields(searchableFields)
+                .operator(Operator.And)
+                .tieBreaker(tieBreaker)
+                .type(TextQueryType.CrossFields)
+                .query(queryTerm)
+        ).toQuery();
+    }
+
+    private static Map<String, Aggregation> compileAggregationFilters(final List<QuerySettings.FacetSettings> facets) {
+        final Map<String, Aggregation> filters = new LinkedHashMap<>();
+
+        for (QuerySettings.FacetSettings facet : facets) {
+            final TermsAggregation.Builder terms = new TermsAggregation.Builder().field(facet.field());
+            if (facet.size() != null) {
+                terms.size(facet.size());
+            }
+            if (facet.shardSize() != null) {
+                terms.shardSize(facet.shardSize());
+            }
+            if (facet.executionHint() != null) {
+                terms.executionHint(executionHint(facet.executionHint()));
+            }
+            filters.put(facet.field(), new Aggregation.Builder().terms(terms.build()).build());
         }
-        return filters;
+        return Collections.unmodifiableMap(filters);
+    }
+
+    private static TermsAggregationExecutionHint executionHint(final String executionHint) {
+        for (TermsAggregationExecutionHint hint : TermsAggregationExecutionHint.values()) {
+            if (hint.jsonValue().equals(executionHint)) {
+                return hint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown terms execution hint: " + executionHint);
     }
 
     public SearchResponseModel toModelConversion(final Optional<SearchResponse<Product>> optionalSearchResponse,
-                                                 final SearchResponse<String> searchResultsAggregations,
+                                                 final SearchResponse<?> searchResultsAggregations,
                                                  final ComplexQueryRequestModel complexQueryRequestModel) {
+        return toModelConversion(optionalSearchResponse, searchResultsAggregations, complexQueryRequestModel, null);
+    }
+
+    public SearchResponseModel toModelConversion(final Optional<SearchResponse<Product>> optionalSearchResponse,
+                                                 final SearchResponse<?> searchResultsAggregations,
+                                                 final ComplexQueryRequestModel complexQueryRequestModel,
+                                                 final String pitId) {
+        return toModelConversion(optionalSearchResponse, toFacets(searchResultsAggregations), complexQueryRequestModel,
+                pitId);
+    }
+
+    public SearchResponseModel toModelConversion(final Optional<SearchResponse<Product>> optionalSearchResponse,
+                                                 final Map<String, Map<String, Long>> filters,
+                                                 final ComplexQueryRequestModel complexQueryRequestModel,
+                                                 final String pitId) {
         if (optionalSearchResponse.isPresent()) {
 
             final SearchResponse<Product> searchResults = optionalSearchResponse.get();
             final HitsMetadata<Product> hits = searchResults.hits();
             final List<Hit<Product>> hitList = hits.hits().stream().toList();
             final List<Product> products = hitList.stream().map(Hit::source).toList();
-            final Long totalHits = searchResults.hits().total().value();
-
-            Map<String, Map<String, Long>> filters = null;
-            if (searchResultsAggregations != null) {
-
-                filters = new HashMap<>();
-
-                for (String filterName : DEFAULT_AGGREGATION_FIELDS) {
-                    Map<String, Long> filtersValues = new HashMap<>();
-                    final List<StringTermsBucket> buckets = searchResultsAggregations.aggregations()
-                            .get(filterName)
-                            .sterms().buckets().array();
-
-                    for (StringTermsBucket bucket : buckets) {
-                        filtersValues.put(bucket.key(), bucket.docCount());
-                    }
-                    filters.put(filterName, filtersValues);
-                }
-            }
+            final TotalHits total = searchResults.hits().total();
 
             PaginationModel paginationModel = null;
             if (complexQueryRequestModel != null) {
                 paginationModel = new PaginationModel(complexQueryRequestModel.getSize(),
-                        complexQueryRequestModel.getFrom());
+                        complexQueryRequestModel.getFrom(), nextCursor(hitList, complexQueryRequestModel, pitId));
             }
 
-            return new SearchResponseModel.Builder(totalHits, products, filters).setPaginationModel(paginationModel).build();
+            return new SearchResponseModel.Builder(total.value(), products, filters)
+                    .setPaginationModel(paginationModel)
+                    .setExact(total.relation() == TotalHitsRelation.Eq)
+                    .build();
         } else {
             return new SearchResponseModel.Builder(0L, new ArrayList<>(), null).build();
         }
 
     }
+
+    public SearchResponseModel toModelConversion(final List<Hit<Product>> hitList,
+                                                 final long totalHits,
+                                                 final boolean exact,
+                                                 final SearchResponse<?> searchResultsAggregations,
+                                                 final ComplexQueryRequestModel complexQueryRequestModel) {
+        final List<Product> products = hitList.stream().map(Hit::source).toList();
+        return new SearchResponseModel.Builder(totalHits, products, toFacets(searchResultsAggregations))
+                .setPaginationModel(new PaginationModel(complexQueryRequestModel.getSize(),
+                        complexQueryRequestModel.getFrom()))
+                .setExact(exact)
+                .build();
+    }
+
+    public Map<String, Map<String, Long>> toFacets(final SearchResponse<?> searchResultsAggregations) {
+        if (searchResultsAggregations == null) {
+            return null;
+        }
+        final Map<String, Map<String, Long>> filters = new HashMap<>();
+
+        for (String filterName : compiledQuery.aggregationFilters().keySet()) {
+            final Aggregate aggregate = searchResultsAggregations.aggregations().get(filterName);
+            if (aggregate == null || !aggregate.isSterms()) {
+                continue;
+            }
+            Map<String, Long> filtersValues = new HashMap<>();
+            final List<StringTermsBucket> buckets = aggregate.sterms().buckets().array();
+
+            for (StringTermsBucket bucket : buckets) {
+                filtersValues.put(bucket.key(), bucket.docCount());
+            }
+            filters.put(filterName, filtersValues);
+        }
+        return filters;
+    }
+
+    public String nextCursor(final List<String> lastSortValues, final int hitCount,
+                             final ComplexQueryRequestModel complexQueryRequestModel, final String pitId) {
+        if (!cursorEnabled || hitCount == 0 || hitCount < complexQueryRequestModel.getSize()
+                || lastSortValues == null || lastSortValues.isEmpty()) {
+            return null;
+        }
+        return new SearchCursor(lastSortValues, pitId).encode();
+    }
+
+    private String nextCursor(final List<Hit<Product>> hitList,
+                              final ComplexQueryRequestModel complexQueryRequestModel,
+                              final String pitId) {
+        return hitList.isEmpty()
+                ? null
+                : nextCursor(hitList.get(hitList.size() - 1).sort(), hitList.size(), complexQueryRequestModel, pitId);
+    }
+
+    private record CompiledQuery(QuerySettings querySettings,
+                                 List<String> searchableFields,
+                                 Map<String, Aggregation> aggregationFilters,
+                                 QueryTemplate queryTemplate) {
+    }
 }
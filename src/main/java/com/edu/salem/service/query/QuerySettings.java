@@ -0,0 +1,146 @@
+package com.edu.salem.service.query;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class QuerySettings {
+
+    private static final float DEFAULT_BOOST = 1.0f;
+    private final Map<String, Float> searchableFields;
+    private final String aggregationFields;
+    private final FacetSettings facetDefaults;
+    private final List<FacetSettings> facets;
+    private final String version;
+
+    private QuerySettings(final Map<String, Float> searchableFields,
+                          final String aggregationFields,
+                          final FacetSettings facetDefaults) {
+        if (searchableFields.isEmpty()) {
+            throw new IllegalArgumentException("At least one searchable field is required");
+        }
+        this.searchableFields = Collections.unmodifiableMap(new LinkedHashMap<>(searchableFields));
+        this.aggregationFields = aggregationFields;
+        this.facetDefaults = facetDefaults;
+        this.facets = parseFacets(aggregationFields, facetDefaults);
+        this.version = version(searchableFieldsWithBoosts(), this.facets);
+    }
+
+    public static QuerySettings parse(final String searchableFields,
+                                      final String aggregationFields,
+                                      final int facetSize,
+                                      final int facetShardSize,
+                                      final String facetExecutionHint) {
+        return new QuerySettings(parseSearchableFields(searchableFields), aggregationFields,
+                new FacetSettings(null, facetSize, facetShardSize, facetExecutionHint));
+    }
+
+    public QuerySettings reload(final String searchableFields,
+                                final String aggregationFields,
+                                final Integer facetSize,
+                                final Integer facetShardSize,
+                                final String facetExecutionHint) {
+        return new QuerySettings(
+                searchableFields == null ? this.searchableFields : parseSearchableFields(searchableFields),
+                aggregationFields == null ? this.aggregationFields : aggregationFields,
+                new FacetSettings(null,
+                        facetSize == null ? facetDefaults.size() : facetSize,
+                        facetShardSize == null ? facetDefaults.shardSize() : facetShardSize,
+                        facetExecutionHint == null ? facetDefaults.executionHint() : facetExecutionHint));
+    }
+
+    public static Map<String, Float> parseSearchableFields(final String searchableFields) {
+        final Map<String, Float> fields = new LinkedHashMap<>();
+        for (String entry : split(searchableFields, ",")) {
+            final int boost = entry.indexOf('^');
+            if (boost < 0) {
+                fields.put(entry, DEFAULT_BOOST);
+            } else {
+                fields.put(entry.substring(0, boost).trim(), Float.parseFloat(entry.substring(boost + 1).trim()));
+            }
+        }
+        return fields;
+    }
+
+    public static List<FacetSettings> parseFacets(final String aggregationFields, final FacetSettings defaults) {
+        return split(aggregationFields, ",").stream()
+                .map(entry -> {
+                    final List<String> parts = split(entry, "\\|");
+                    Integer size = defaults.size();
+                    Integer shardSize = defaults.shardSize();
+                    String executionHint = defaults.executionHint();
+                    for (String option : parts.subList(1, parts.size())) {
+                        final int separator = option.indexOf('=');
+                        if (separator < 0) {
+                            throw new IllegalArgumentException("Facet option must be key=value: " + option);
+                        }
+                        final String value = option.substring(separator + 1).trim();
+                        switch (option.substring(0, separator).trim()) {
+                            case "size" -> size = Integer.parseInt(value);
+                            case "shardSize" -> shardSize = Integer.parseInt(value);
+                            case "executionHint" -> executionHint = value;
+                            default -> throw new IllegalArgumentException("Unknown facet option: " + option);
+                        }
+                    }
+                    return new FacetSettings(parts.get(0), size, shardSize, executionHint);
+                })
+                .toList();
+    }
+
+    public Map<String, Float> getSearchableFields() {
+        return searchableFields;
+    }
+
+    public List<FacetSettings> getFacets() {
+        return facets;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public List<String> getAggregationFields() {
+        return facets.stream().map(FacetSettings::field).toList();
+    }
+
+    public List<String> searchableFieldsWithBoosts() {
+        return searchableFields.entrySet().stream()
+                .map(field -> field.getValue() == DEFAULT_BOOST ? field.getKey() : field.getKey() + "^" + field.getValue())
+                .toList();
+    }
+
+    private static String version(final List<String> searchableFields, final List<FacetSettings> facets) {
+        final StringBuilder canonical = new StringBuilder(String.join(",", searchableFields));
+        for (FacetSettings facet : facets) {
+            canonical.append('|').append(facet.field())
+                    .append(':').append(facet.size())
+                    .append(':').append(facet.shardSize())
+                    .append(':').append(facet.executionHint());
+        }
+        return Long.toHexString(MurmurHash3.hash128x64(canonical.toString().getBytes(StandardCharsets.UTF_8))[0]);
+    }
+
+    private static List<String> split(final String value, final String separator) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.replace("\"", "").split(separator))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .toList();
+    }
+
+    public record FacetSettings(String field, Integer size, Integer shardSize, String executionHint) {
+
+        public FacetSettings {
+            size = size != null && size > 0 ? size : null;
+            shardSize = shardSize != null && shardSize > 0 ? shardSize : null;
+            executionHint = executionHint != null && !executionHint.isBlank() ? executionHint : null;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.edu.salem.service.query;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Order;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.JsonpSerializable;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch._types.SortOptions;
+import org.opensearch.client.opensearch._types.aggregations.Aggregation;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public final class QueryTemplate {
+
+    static final String QUERY_TERM_PLACEHOLDER = "__salem_query_term__";
+    private static final JsonpMapper MAPPER = new JacksonJsonpMapper();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private final String queryPrefix;
+    private final String querySuffix;
+    private final String aggregations;
+    private final String cursorSort;
+    private final Map<Order, String> orderSorts = new EnumMap<>(Order.class);
+    private final String mustache;
+
+    public QueryTemplate(final Query multiMatchSkeleton,
+                         final Map<String, Aggregation> aggregations,
+                         final List<SortOptions> cursorSort,
+                         final Map<Order, List<SortOptions>> orderSorts) {
+        final String multiMatch = render(multiMatchSkeleton);
+        final String placeholder = '"' + QUERY_TERM_PLACEHOLDER + '"';
+        final int split = multiMatch.indexOf(placeholder);
+        if (split < 0) {
+            throw new IllegalArgumentException("Multi-match skeleton must carry the query term placeholder");
+        }
+        this.queryPrefix = "{\"bool\":{\"must\":[" + multiMatch.substring(0, split);
+        this.querySuffix = multiMatch.substring(split + placeholder.length()) + "],\"filter\":[";
+        this.aggregations = renderMap(aggregations);
+        this.cursorSort = renderList(cursorSort);
+        final StringBuilder orderSections = new StringBuilder();
+        for (Map.Entry<Order, List<SortOptions>> orderSort : orderSorts.entrySet()) {
+            final String section = orderSort.getKey().getType();
+            this.orderSorts.put(orderSort.getKey(), renderList(orderSort.getValue()));
+            orderSections.append("{{#").append(section).append("}},\"sort\":")
+                    .append(this.orderSorts.get(orderSort.getKey()))
+                    .append("{{/").append(section).append("}}");
+        }
+        this.mustache = "{\"size\":{{size}},\"from\":{{from}},\"track_total_hits\":{{trackTotalHits}}"
+                + "{{#sorted}},\"sort\":" + this.cursorSort + "{{/sorted}}"
+                + orderSections
+                + "{{#paged}},\"search_after\":{{#toJson}}searchAfter{{/toJson}}{{/paged}}"
+                + ",\"query\":" + queryPrefix + "\"{{queryTerm}}\"" + multiMatch.substring(split + placeholder.length())
+                + "],\"filter\":{{#toJson}}filters{{/toJson}}}}"
+                + "{{#aggregations}},\"aggregations\":" + this.aggregations + "{{/aggregations}}}";
+    }
+
+    public String toMustache() {
+        return mustache;
+    }
+
+    public byte[] renderSearch(final ComplexQueryRequestModel complexQueryRequestModel,
+                               final SearchCursor cursor,
+                               final boolean hits,
+                               final boolean aggregations,
+                               final boolean sorted,
+                               final Integer totalHitsThreshold) {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(body)) {
+            generator.writeStartObject();
+            if (hits) {
+                generator.writeNumberField("size", complexQueryRequestModel.getSize());
+                if (cursor == null) {
+                    generator.writeNumberField("from", complexQueryRequestModel.getFrom());
+                }
+                writeTrackTotalHits(generator, totalHitsThreshold);
+                final String sort = sortFor(complexQueryRequestModel, sorted);
+                if (sort != null) {
+                    generator.writeFieldName("sort");
+                    generator.writeRawValue(sort);
+                }
+                if (cursor != null) {
+                    generator.writeArrayFieldStart("search_after");
+                    for (String value : cursor.getSearchAfter()) {
+                        generator.writeString(value);
+                    }
+                    generator.writeEndArray();
+                }
+            } else {
+                generator.writeNumberField("size", 0);
+                generator.writeBooleanField("track_total_hits", false);
+            }
+            generator.writeFieldName("query");
+            writeQuery(generator, complexQueryRequestModel);
+            if (aggregations) {
+                generator.writeFieldName("aggregations");
+                generator.writeRawValue(this.aggregations);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return body.toByteArray();
+    }
+
+    public byte[] renderPointInTimeSearch(final ComplexQueryRequestModel complexQueryRequestModel,
+                                          final SearchCursor cursor,
+                                          final String pitId,
+                                          final String keepAlive,
+                                          final Integer totalHitsThreshold) {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(body)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("pit");
+            generator.writeStringField("id", pitId);
+            generator.writeStringField("keep_alive", keepAlive);
+            generator.writeEndObject();
+            generator.writeNumberField("size", complexQueryRequestModel.getSize());
+            writeTrackTotalHits(generator, totalHitsThreshold);
+            generator.writeFieldName("sort");
+            generator.writeRawValue(sortFor(complexQueryRequestModel, true));
+            generator.writeArrayFieldStart("search_after");
+            for (String value : cursor.getSearchAfter()) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+            generator.writeFieldName("query");
+            writeQuery(generator, complexQueryRequestModel);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return body.toByteArray();
+    }
+
+    private String sortFor(final ComplexQueryRequestModel complexQueryRequestModel, final boolean sorted) {
+        final Order order = complexQueryRequestModel.getOrder();
+        final String orderSort = order != null ? orderSorts.get(order) : null;
+        if (orderSort != null) {
+            return orderSort;
+        }
+        return sorted ? cursorSort : null;
+    }
+
+    private static void writeTrackTotalHits(final JsonGenerator generator, final Integer totalHitsThreshold)
+            throws IOException {
+        if (totalHitsThreshold == null) {
+            generator.writeBooleanField("track_total_hits", true);
+        } else {
+            generator.writeNumberField("track_total_hits", totalHitsThreshold);
+        }
+    }
+
+    private void writeQuery(final JsonGenerator generator, final ComplexQueryRequestModel complexQueryRequestModel)
+            throws IOException {
+        final StringBuilder query = new StringBuilder(queryPrefix.length() + querySuffix.length() + 64)
+                .append(queryPrefix)
+                .append(quote(complexQueryRequestModel.getQueryTerm()))
+                .append(querySuffix);
+        final Map<String, String> filters = complexQueryRequestModel.getFilters();
+        if (filters != null) {
+            boolean first = true;
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                query.append(first ? "{\"terms\":{" : ",{\"terms\":{")
+                        .append(quote(filter.getKey()))
+                        .append(":[")
+                        .append(quote(filter.getValue()))
+                        .append("]}}");
+                first = false;
+            }
+        }
+        generator.writeRawValue(query.append("]}}").toString());
+    }
+
+    private static String quote(final String value) {
+        if (value == null) {
+            return "null";
+        }
+        final StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        JsonStringEncoder.getInstance().quoteAsString(value, quoted);
+        return quoted.append('"').toString();
+    }
+
+    private static String renderList(final List<? extends JsonpSerializable> values) {
+        return "[" + String.join(",", values.stream().map(QueryTemplate::render).toList()) + "]";
+    }
+
+    private static String renderMap(final Map<String, ? extends JsonpSerializable> values) {
+        final StringBuilder rendered = new StringBuilder("{");
+        for (Map.Entry<String, ? extends JsonpSerializable> value : values.entrySet()) {
+            if (rendered.length() > 1) {
+                rendered.append(',');
+            }
+            rendered.append(quote(value.getKey())).append(':').append(render(value.getValue()));
+        }
+        return rendered.append('}').toString();
+    }
+
+    private static String render(final JsonpSerializable value) {
+        final StringWriter json = new StringWriter();
+        try (jakarta.json.stream.JsonGenerator generator = MAPPER.jsonProvider().createGenerator(json)) {
+            value.serialize(generator, MAPPER);
+        }
+        return json.toString();
+    }
+}
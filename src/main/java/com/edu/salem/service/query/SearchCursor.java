@@ -0,0 +1,84 @@
+package com.edu.salem.service.query;
+
+import com.edu.salem.service.RetrievalMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+public final class SearchCursor {
+
+    private static final byte VERSION = 1;
+    private final List<String> searchAfter;
+    private final String pitId;
+
+    public SearchCursor(final List<String> searchAfter, final String pitId) {
+        this.searchAfter = List.copyOf(searchAfter);
+        this.pitId = pitId;
+    }
+
+    public List<String> getSearchAfter() {
+        return searchAfter;
+    }
+
+    public String getPitId() {
+        return pitId;
+    }
+
+    public String encode() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeBoolean(pitId != null);
+            if (pitId != null) {
+                out.writeUTF(pitId);
+            }
+            out.writeByte(searchAfter.size());
+            for (String value : searchAfter) {
+                out.writeUTF(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static SearchCursor decode(final String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            final String pitId = in.readBoolean() ? in.readUTF() : null;
+            final int size = in.readUnsignedByte();
+            final List<String> searchAfter = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                searchAfter.add(in.readUTF());
+            }
+            return new SearchCursor(searchAfter, pitId);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    public static boolean isValid(final String cursor) {
+        try {
+            decode(cursor);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static boolean isValid(final String cursor, final RetrievalMode retrievalMode) {
+        return retrievalMode == RetrievalMode.LEXICAL ? isValid(cursor) : cursor == null || cursor.isBlank();
+    }
+}
@@ -0,0 +1,167 @@
+package com.edu.salem.service.query;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Order;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.commons.codec.digest.MurmurHash3;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.PutScriptRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class StoredSearchTemplate {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoredSearchTemplate.class);
+    private static final String TEMPLATE_ID_PREFIX = "salem-complex-query-";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private final OpenSearchAsyncClient client;
+    private final QueryBuilder queryBuilder;
+    private final boolean enabled;
+    private final boolean sorted;
+    private volatile Template template;
+    private volatile String registeredTemplateId;
+
+    public StoredSearchTemplate(@Value("${management.service.search.storedTemplate.enabled:false}") final boolean enabled,
+                                final QueryBuilder queryBuilder,
+                                final OpenSearchAsyncClient client) {
+        this.enabled = enabled;
+        this.client = client;
+        this.queryBuilder = queryBuilder;
+        this.sorted = queryBuilder.isCursorEnabled();
+        this.template = Template.of(queryBuilder.renderMustacheTemplate());
+    }
+
+    public boolean isActive() {
+        return enabled && template.id().equals(registeredTemplateId);
+    }
+
+    public String getTemplateId() {
+        return template.id();
+    }
+
+    public String getSource() {
+        return template.source();
+    }
+
+    public CompletableFuture<Boolean> refresh() {
+        final Template refreshed = Template.of(queryBuilder.renderMustacheTemplate());
+        if (refreshed.id().equals(template.id())) {
+            return CompletableFuture.completedFuture(isActive());
+        }
+        this.template = refreshed;
+        return enabled ? register() : CompletableFuture.completedFuture(false);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerOnStartup() {
+        if (enabled) {
+            register();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${management.service.search.storedTemplate.retryMillis:30000}")
+    public void retryRegistration() {
+        if (enabled && !isActive()) {
+            register();
+        }
+    }
+
+    public CompletableFuture<Boolean> register() {
+        final Template current = this.template;
+        try {
+            return client.putScript(PutScriptRequest.of(p -> p
+                            .id(current.id())
+                            .script(s -> s.lang("mustache").source(current.source()))))
+                    .thenApply(response -> {
+                        if (response.acknowledged()) {
+                            registeredTemplateId = current.id();
+                        }
+                        logger.info("Stored search template {} registered: {}", current.id(), response.acknowledged());
+                        return response.acknowledged();
+                    })
+                    .exceptionally(throwable -> {
+                        logger.warn("Could not register stored search template {}", current.id(), throwable);
+                        return false;
+                    });
+        } catch (IOException e) {
+            logger.warn("Could not register stored search template {}", current.id(), e);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    public byte[] renderParams(final ComplexQueryRequestModel complexQueryRequestModel,
+                               final SearchCursor cursor,
+                               final boolean hits,
+                               final boolean aggregations) {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        final boolean ordered = hits && queryBuilder.isOrdered(complexQueryRequestModel);
+        final Integer totalHitsThreshold = queryBuilder.totalHitsThreshold(complexQueryRequestModel);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(body)) {
+            generator.writeStartObject();
+            generator.writeStringField("id", template.id());
+            generator.writeObjectFieldStart("params");
+            generator.writeStringField("queryTerm", complexQueryRequestModel.getQueryTerm());
+            generator.writeNumberField("size", hits ? complexQueryRequestModel.getSize() : 0);
+            generator.writeNumberField("from", hits && cursor == null ? complexQueryRequestModel.getFrom() : 0);
+            if (!hits || totalHitsThreshold == null) {
+                generator.writeBooleanField("trackTotalHits", hits);
+            } else {
+                generator.writeNumberField("trackTotalHits", totalHitsThreshold);
+            }
+            generator.writeBooleanField("sorted", hits && sorted && !ordered);
+            for (Order order : Order.values()) {
+                generator.writeBooleanField(order.getType(), ordered && complexQueryRequestModel.getOrder() == order);
+            }
+            generator.writeBooleanField("paged", hits && cursor != null);
+            generator.writeBooleanField("aggregations", aggregations);
+            generator.writeArrayFieldStart("searchAfter");
+            if (hits && cursor != null) {
+                for (String value : cursor.getSearchAfter()) {
+                    generator.writeString(value);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("filters");
+            final Map<String, String> filters = complexQueryRequestModel.getFilters();
+            if (filters != null) {
+                for (Map.Entry<String, String> filter : filters.entrySet()) {
+                    generator.writeStartObject();
+                    generator.writeObjectFieldStart("terms");
+                    generator.writeArrayFieldStart(filter.getKey());
+                    generator.writeString(filter.getValue());
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return body.toByteArray();
+    }
+
+    private record Template(String id, String source) {
+
+        static Template of(final String source) {
+            return new Template(TEMPLATE_ID_PREFIX
+                    + Long.toHexString(MurmurHash3.hash128x64(source.getBytes(StandardCharsets.UTF_8))[0]), source);
+        }
+    }
+}
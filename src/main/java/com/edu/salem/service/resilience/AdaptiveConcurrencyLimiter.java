@@ -0,0 +1,103 @@
+package com.edu.salem.service.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(@Value("${management.service.resilience.limiter.enabled:true}") final boolean enabled,
+                                      @Value("${management.service.resilience.limiter.initialLimit:32}") final int initialLimit,
+                                      @Value("${management.service.resilience.limiter.minLimit:4}") final int minLimit,
+                                      @Value("${management.service.resilience.limiter.maxLimit:256}") final int maxLimit,
+                                      @Value("${management.service.resilience.limiter.latencyThresholdMillis:800}") final long latencyThresholdMillis,
+                                      @Value("${management.service.resilience.limiter.backoffRatio:0.9}") final double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limiter settings");
+        }
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        final int current = getLimit();
+        int inFlightAtStart;
+        do {
+            inFlightAtStart = inFlight.get();
+            if (inFlightAtStart >= current) {
+                return CompletableFuture.failedFuture(new ConcurrencyLimitExceededException(current));
+            }
+        } while (!inFlight.compareAndSet(inFlightAtStart, inFlightAtStart + 1));
+
+        final long start = System.nanoTime();
+        final int concurrency = inFlightAtStart + 1;
+        final CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+        future.whenComplete((result, throwable) -> {
+            if (!isHedgeLoser(throwable)) {
+                onSample(System.nanoTime() - start, concurrency, throwable != null);
+            }
+            inFlight.decrementAndGet();
+        });
+        return future;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized void onSample(final long latencyNanos, final int concurrency, final boolean dropped) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (concurrency * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    private static boolean isHedgeLoser(final Throwable throwable) {
+        final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        return cause instanceof HedgeCancelledException;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("salem.search.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .register(registry);
+        Gauge.builder("salem.search.concurrency.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(registry);
+    }
+}
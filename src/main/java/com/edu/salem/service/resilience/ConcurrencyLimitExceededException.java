@@ -0,0 +1,8 @@
+package com.edu.salem.service.resilience;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(final int limit) {
+        super("OpenSearch concurrency limit of " + limit + " reached");
+    }
+}
@@ -0,0 +1,10 @@
+package com.edu.salem.service.resilience;
+
+import java.util.concurrent.CancellationException;
+
+public class HedgeCancelledException extends CancellationException {
+
+    public HedgeCancelledException() {
+        super("Hedged attempt lost the race");
+    }
+}
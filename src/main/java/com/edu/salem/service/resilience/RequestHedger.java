@@ -0,0 +1,191 @@
+package com.edu.salem.service.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+@Component
+public class RequestHedger implements MeterBinder {
+
+    private static final double MAX_BUDGET_TOKENS = 10;
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMicros;
+    private final long maxDelayMicros;
+    private final double budgetRatio;
+    private final long minSamples;
+    private final Recorder recorder = new Recorder(2);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private volatile long delayMicros;
+    private Histogram intervalHistogram;
+    private double budgetTokens;
+
+    public RequestHedger(@Value("${management.service.search.hedging.enabled:false}") final boolean enabled,
+                         @Value("${management.service.search.hedging.percentile:95}") final double percentile,
+                         @Value("${management.service.search.hedging.minDelayMillis:20}") final long minDelayMillis,
+                         @Value("${management.service.search.hedging.maxDelayMillis:500}") final long maxDelayMillis,
+                         @Value("${management.service.search.hedging.budgetPercent:5}") final double budgetPercent,
+                         @Value("${management.service.search.hedging.minSamples:100}") final long minSamples) {
+        if (percentile <= 0 || percentile >= 100 || minDelayMillis > maxDelayMillis || budgetPercent < 0) {
+            throw new IllegalArgumentException("Invalid hedging settings");
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayMicros = TimeUnit.MILLISECONDS.toMicros(minDelayMillis);
+        this.maxDelayMicros = TimeUnit.MILLISECONDS.toMicros(maxDelayMillis);
+        this.budgetRatio = budgetPercent / 100;
+        this.minSamples = minSamples;
+        this.delayMicros = maxDelayMicros;
+    }
+
+    public <T> CompletableFuture<T> hedge(final Function<String, CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.apply(null);
+        }
+        requests.incrementAndGet();
+        depositBudget();
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+        final AtomicInteger pending = new AtomicInteger(2);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicBoolean hedgeLaunched = new AtomicBoolean();
+        result.whenComplete((value, throwable) -> attempts.forEach(attempt -> cancel(attempt, result)));
+
+        final long start = System.nanoTime();
+        final CompletableFuture<T> primary = call.apply(null);
+        primary.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        });
+        attach(primary, false, result, attempts, pending, failure, hedgeLaunched);
+
+        CompletableFuture.delayedExecutor(delayMicros, TimeUnit.MICROSECONDS).execute(() -> {
+            if (result.isDone() || !withdrawBudget()) {
+                settle(result, pending, failure);
+                return;
+            }
+            hedgeLaunched.set(true);
+            if (result.isDone()) {
+                settle(result, pending, failure);
+                return;
+            }
+            hedges.incrementAndGet();
+            final CompletableFuture<T> hedged;
+            try {
+                hedged = call.apply("hedge-" + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+                settle(result, pending, failure);
+                return;
+            }
+            attach(hedged, true, result, attempts, pending, failure, hedgeLaunched);
+        });
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${management.service.search.hedging.refreshMillis:5000}")
+    public void refreshDelay() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (recorder) {
+            intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+            if (intervalHistogram.getTotalCount() >= minSamples) {
+                delayMicros = Math.max(minDelayMicros,
+                        Math.min(maxDelayMicros, intervalHistogram.getValueAtPercentile(percentile)));
+            }
+        }
+    }
+
+    public long getDelayMillis() {
+        return TimeUnit.MICROSECONDS.toMillis(delayMicros);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("salem.search.hedge.requests", requests, AtomicLong::get)
+                .description("Hits legs eligible for hedging")
+                .register(registry);
+        FunctionCounter.builder("salem.search.hedge.sent", hedges, AtomicLong::get)
+                .description("Hedged duplicates sent")
+                .register(registry);
+        FunctionCounter.builder("salem.search.hedge.wins", hedgeWins, AtomicLong::get)
+                .description("Hedged duplicates that answered first")
+                .register(registry);
+        Gauge.builder("salem.search.hedge.delay", this, RequestHedger::getDelayMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private <T> void attach(final CompletableFuture<T> attempt, final boolean hedged,
+                            final CompletableFuture<T> result, final List<CompletableFuture<T>> attempts,
+                            final AtomicInteger pending, final AtomicReference<Throwable> failure,
+                            final AtomicBoolean hedgeLaunched) {
+        attempts.add(attempt);
+        if (result.isDone()) {
+            cancel(attempt, result);
+        }
+        attempt.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                if (result.complete(value) && hedged) {
+                    hedgeWins.incrementAndGet();
+                }
+                return;
+            }
+            failure.compareAndSet(null, throwable);
+            if (!hedged && !hedgeLaunched.get()) {
+                result.completeExceptionally(throwable);
+            }
+            settle(result, pending, failure);
+        });
+    }
+
+    private static <T> void cancel(final CompletableFuture<T> attempt, final CompletableFuture<T> result) {
+        if (result.isCancelled()) {
+            attempt.cancel(true);
+        } else {
+            attempt.completeExceptionally(new HedgeCancelledException());
+        }
+    }
+
+    private static <T> void settle(final CompletableFuture<T> result, final AtomicInteger pending,
+                                   final AtomicReference<Throwable> failure) {
+        if (pending.decrementAndGet() == 0 && failure.get() != null) {
+            result.completeExceptionally(failure.get());
+        }
+    }
+
+    private synchronized void depositBudget() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + budgetRatio);
+    }
+
+    private synchronized boolean withdrawBudget() {
+        if (budgetTokens < 1) {
+            return false;
+        }
+        budgetTokens--;
+        return true;
+    }
+}
@@ -0,0 +1,8 @@
+package com.edu.salem.service.resilience;
+
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(final Throwable cause) {
+        super("Search is shedding load", cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.edu.salem.service.vector;
+
+public interface EmbeddingProvider {
+
+    float[] embed(final String text);
+
+    int dimension();
+}
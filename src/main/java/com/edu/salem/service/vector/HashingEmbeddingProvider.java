@@ -0,0 +1,70 @@
+package com.edu.salem.service.vector;
+
+import com.edu.salem.cache.ComplexQueryKeys;
+import com.edu.salem.service.RetrievalMode;
+import org.apache.commons.codec.digest.MurmurHash3;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@ConditionalOnProperty(name = "management.service.search.vector.embedding.provider", havingValue = "hashing",
+        matchIfMissing = true)
+public class HashingEmbeddingProvider implements EmbeddingProvider {
+
+    private static final int TRIGRAM = 3;
+    private final int dimension;
+
+    public HashingEmbeddingProvider(@Value("${management.service.search.vector.embedding.dimension:384}") final int dimension,
+                                    @Value("${management.service.search.vector.retrieval:LEXICAL}") final RetrievalMode retrievalMode) {
+        if (retrievalMode != RetrievalMode.LEXICAL) {
+            throw new IllegalStateException("The hashing embedding provider is a stub and cannot serve "
+                    + retrievalMode + " retrieval: configure a model-backed embedding provider");
+        }
+        this.dimension = dimension;
+    }
+
+    @Override
+    public float[] embed(final String text) {
+        final float[] vector = new float[dimension];
+        final String normalized = ComplexQueryKeys.normalizeQueryTerm(text);
+        for (String token : normalized.split(" ")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            add(vector, token);
+            final String padded = "#" + token + "#";
+            for (int i = 0; i + TRIGRAM <= padded.length(); i++) {
+                add(vector, padded.substring(i, i + TRIGRAM));
+            }
+        }
+        return normalize(vector);
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    private void add(final float[] vector, final String feature) {
+        final int hash = MurmurHash3.hash32x86(feature.getBytes(StandardCharsets.UTF_8));
+        vector[Math.floorMod(hash, dimension)] += (hash & 0x80000000) == 0 ? 1f : -1f;
+    }
+
+    private static float[] normalize(final float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return vector;
+        }
+        final float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,37 @@
+package com.edu.salem.service.vector;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.service.query.QueryBuilder;
+import org.opensearch.client.opensearch._types.query_dsl.BoolQuery;
+import org.opensearch.client.opensearch._types.query_dsl.KnnQuery;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class KnnQueryBuilder {
+
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final String field;
+    private final int k;
+
+    public KnnQueryBuilder(final QueryEmbeddingCache queryEmbeddingCache,
+                           @Value("${management.service.search.vector.field:embedding}") final String field,
+                           @Value("${management.service.search.vector.k:100}") final int k) {
+        this.queryEmbeddingCache = queryEmbeddingCache;
+        this.field = field;
+        this.k = k;
+    }
+
+    public Query buildKnnQuery(final ComplexQueryRequestModel complexQueryRequestModel, final int window) {
+        final float[] vector = queryEmbeddingCache.embed(complexQueryRequestModel.getQueryTerm());
+        final BoolQuery filters = QueryBuilder.buildFilterQueries(complexQueryRequestModel);
+        return KnnQuery.of(knn -> {
+            knn.field(field).vector(vector).k(Math.max(k, window));
+            if (!filters.filter().isEmpty()) {
+                knn.filter(filters.toQuery());
+            }
+            return knn;
+        }).toQuery();
+    }
+}
@@ -0,0 +1,38 @@
+package com.edu.salem.service.vector;
+
+import com.edu.salem.cache.ComplexQueryKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class QueryEmbeddingCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "queryEmbeddings";
+
+    private final EmbeddingProvider embeddingProvider;
+    private final Cache<String, float[]> embeddings;
+
+    public QueryEmbeddingCache(final EmbeddingProvider embeddingProvider,
+                               @Value("${management.service.search.vector.embedding.cacheSize:10000}") final long cacheSize) {
+        this.embeddingProvider = embeddingProvider;
+        this.embeddings = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+    }
+
+    public float[] embed(final String queryTerm) {
+        return embeddings.get(ComplexQueryKeys.normalizeQueryTerm(queryTerm), embeddingProvider::embed);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, embeddings, CACHE_NAME);
+    }
+}
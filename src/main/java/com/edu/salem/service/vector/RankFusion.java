@@ -0,0 +1,33 @@
+package com.edu.salem.service.vector;
+
+import org.opensearch.client.opensearch.core.search.Hit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class RankFusion {
+
+    private RankFusion() {
+    }
+
+    public static <T> List<Hit<T>> reciprocalRank(final int rankConstant, final List<List<Hit<T>>> rankings) {
+        final Map<String, Hit<T>> hits = new LinkedHashMap<>();
+        final Map<String, Double> scores = new LinkedHashMap<>();
+        for (List<Hit<T>> ranking : rankings) {
+            if (ranking == null) {
+                continue;
+            }
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                final Hit<T> hit = ranking.get(rank);
+                hits.putIfAbsent(hit.id(), hit);
+                scores.merge(hit.id(), 1.0 / (rankConstant + rank + 1), Double::sum);
+            }
+        }
+        final List<String> fused = new ArrayList<>(scores.keySet());
+        fused.sort(Comparator.comparingDouble((String id) -> scores.get(id)).reversed());
+        return fused.stream().map(hits::get).toList();
+    }
+}
@@ -0,0 +1,146 @@
+package com.edu.salem.service.warmup;
+
+import com.edu.salem.cache.ComplexQueryKeyGenerator;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.service.SearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+public class CacheWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+    private static final String COMPLEX_QUERY_CACHE = "complexQuery";
+    private final SearchService searchService;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String queryLog;
+    private final int topN;
+    private final double requestsPerSecond;
+    private final ComplexQueryKeyGenerator complexQueryKeyGenerator;
+    private volatile boolean warm;
+
+    public CacheWarmer(final SearchService searchService,
+                       final CacheManager cacheManager,
+                       final ComplexQueryKeyGenerator complexQueryKeyGenerator,
+                       final ObjectMapper objectMapper,
+                       @Value("${management.service.warmup.enabled:false}") final boolean enabled,
+                       @Value("${management.service.warmup.queryLog:}") final String queryLog,
+                       @Value("${management.service.warmup.topN:500}") final int topN,
+                       @Value("${management.service.warmup.requestsPerSecond:50}") final double requestsPerSecond) {
+        this.searchService = searchService;
+        this.cacheManager = cacheManager;
+        this.complexQueryKeyGenerator = complexQueryKeyGenerator;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled && !queryLog.isBlank();
+        this.queryLog = queryLog;
+        this.topN = topN;
+        this.requestsPerSecond = requestsPerSecond;
+        this.warm = !this.enabled;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        final Thread warmer = new Thread(() -> {
+            try {
+                replay(false);
+            } finally {
+                warm = true;
+            }
+        }, "cache-warmer");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    @Scheduled(cron = "${management.service.warmup.refreshCron:-}")
+    public void refresh() {
+        if (enabled && warm) {
+            replay(true);
+        }
+    }
+
+    private void replay(final boolean refresh) {
+        final List<ComplexQueryRequestModel> topQueries = readTopQueries();
+        final long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        final Cache cache = cacheManager.getCache(COMPLEX_QUERY_CACHE);
+        logger.info("Replaying {} queries from {} to warm the {} cache", topQueries.size(), queryLog, COMPLEX_QUERY_CACHE);
+
+        long next = System.nanoTime();
+        for (ComplexQueryRequestModel complexQueryRequestModel : topQueries) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            next += intervalNanos;
+            try {
+                if (refresh && cache != null) {
+                    final Optional<?> result = searchService.complexQueryAsync(complexQueryRequestModel).get();
+                    result.ifPresent(value -> cache.put(complexQueryKeyGenerator.key(complexQueryRequestModel), value));
+                } else {
+                    searchService.complexQuery(complexQueryRequestModel);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warn("Warm-up query failed", e);
+            }
+        }
+    }
+
+    private List<ComplexQueryRequestModel> readTopQueries() {
+        final Map<String, ComplexQueryRequestModel> requests = new HashMap<>();
+        final Map<String, Integer> counts = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(queryLog), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    final ComplexQueryRequestModel complexQueryRequestModel =
+                            objectMapper.readValue(line, ComplexQueryRequestModel.class);
+                    final String key = complexQueryKeyGenerator.key(complexQueryRequestModel);
+                    requests.putIfAbsent(key, complexQueryRequestModel);
+                    counts.merge(key, 1, Integer::sum);
+                } catch (IOException e) {
+                    logger.debug("Skipping unreadable query log line", e);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Could not read query log {}", queryLog, e);
+        }
+
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(topN)
+                .map(entry -> requests.get(entry.getKey()))
+                .toList();
+    }
+}
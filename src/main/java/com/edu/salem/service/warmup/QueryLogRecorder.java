@@ -0,0 +1,84 @@
+package com.edu.salem.service.warmup;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class QueryLogRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryLogRecorder.class);
+    private final boolean enabled;
+    private final double sampleRate;
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<String> pending = new ArrayBlockingQueue<>(1024);
+    private volatile boolean running = true;
+
+    public QueryLogRecorder(@Value("${management.service.queryLog.capture.enabled:false}") final boolean enabled,
+                            @Value("${management.service.queryLog.capture.sampleRate:1.0}") final double sampleRate,
+                            @Value("${management.service.queryLog.capture.path:salem-queries.jsonl}") final String path,
+                            final ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+        if (enabled) {
+            final Thread writer = new Thread(this::drain, "query-log-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    public void record(final ComplexQueryRequestModel complexQueryRequestModel) {
+        if (!enabled || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        try {
+            pending.offer(objectMapper.writeValueAsString(complexQueryRequestModel));
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not record query", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    private void drain() {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (running) {
+                final String line = pending.poll(1, TimeUnit.SECONDS);
+                if (line != null) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+                if (pending.isEmpty()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Query log capture stopped", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
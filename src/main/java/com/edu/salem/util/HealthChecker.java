@@ -1,14 +1,25 @@
 package com.edu.salem.util;
 
+import com.edu.salem.service.warmup.CacheWarmer;
 import org.springframework.boot.actuate.health.AbstractHealthIndicator;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.stereotype.Component;
 
 @Component
 public class HealthChecker extends AbstractHealthIndicator {
+    private final CacheWarmer cacheWarmer;
+
+    public HealthChecker(final CacheWarmer cacheWarmer) {
+        this.cacheWarmer = cacheWarmer;
+    }
+
     @Override
     protected void doHealthCheck(Health.Builder builder) {
+        if (!cacheWarmer.isWarm()) {
+            builder.outOfService().withDetail("version", "The app is warming up its cache.");
+            return;
+        }
         builder.up().withDetail("version", "The app is up.");
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.edu.salem.util;
+
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import com.edu.salem.service.query.StoredSearchTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "querysettings")
+public class QuerySettingsEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuerySettingsEndpoint.class);
+    private final QueryBuilder queryBuilder;
+    private final StoredSearchTemplate storedSearchTemplate;
+
+    public QuerySettingsEndpoint(final QueryBuilder queryBuilder,
+                                 final StoredSearchTemplate storedSearchTemplate) {
+        this.queryBuilder = queryBuilder;
+        this.storedSearchTemplate = storedSearchTemplate;
+    }
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        final QuerySettings querySettings = queryBuilder.getQuerySettings();
+        final Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("searchableFields", querySettings.getSearchableFields());
+        settings.put("facets", querySettings.getFacets());
+        settings.put("version", querySettings.getVersion());
+        settings.put("storedTemplate", storedSearchTemplate.getTemplateId());
+        return settings;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload(@Nullable final String searchableFields,
+                                      @Nullable final String aggregationFields,
+                                      @Nullable final Integer facetSize,
+                                      @Nullable final Integer facetShardSize,
+                                      @Nullable final String facetExecutionHint) {
+        final QuerySettings reloaded = queryBuilder.getQuerySettings().reload(searchableFields, aggregationFields,
+                facetSize, facetShardSize, facetExecutionHint);
+
+        queryBuilder.reload(reloaded);
+        storedSearchTemplate.refresh();
+        logger.info("Query settings reloaded to version {}: fields {} facets {}", reloaded.getVersion(),
+                reloaded.getSearchableFields(), reloaded.getFacets());
+        return settings();
+    }
+}
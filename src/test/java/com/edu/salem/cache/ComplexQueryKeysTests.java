@@ -0,0 +1,80 @@
+package com.edu.salem.cache;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Order;
+import com.edu.salem.service.RetrievalMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ComplexQueryKeysTests {
+
+    private static final String VERSION = "1";
+
+    @Test
+    void equivalentRequestsShareKey() {
+        final Map<String, String> filters = new LinkedHashMap<>();
+        filters.put("category", "phones");
+        filters.put("entity", "acme");
+        final Map<String, String> reversedFilters = new LinkedHashMap<>();
+        reversedFilters.put("entity", "acme");
+        reversedFilters.put("category", "phones");
+
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("Smart  Phone", filters, Order.ASC);
+        final ComplexQueryRequestModel equivalent = new ComplexQueryRequestModel(" smart phone", reversedFilters, Order.ASC);
+
+        assertEquals(ComplexQueryKeys.hash(request, RetrievalMode.LEXICAL, VERSION), ComplexQueryKeys.hash(equivalent, RetrievalMode.LEXICAL, VERSION));
+        assertEquals(32, ComplexQueryKeys.hash(request, RetrievalMode.LEXICAL, VERSION).length());
+    }
+
+    @Test
+    void filterValuesAreMatchedExactly() {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("phone", Map.of("entity", "acme"), null);
+        final ComplexQueryRequestModel padded = new ComplexQueryRequestModel("phone", Map.of("entity", "acme "), null);
+
+        assertNotEquals(ComplexQueryKeys.hash(request, RetrievalMode.LEXICAL, VERSION), ComplexQueryKeys.hash(padded, RetrievalMode.LEXICAL, VERSION));
+        assertNotEquals(ComplexQueryKeys.facetHash(request, VERSION), ComplexQueryKeys.facetHash(padded, VERSION));
+    }
+
+    @Test
+    void paginationChangesKey() {
+        final ComplexQueryRequestModel firstPage = new ComplexQueryRequestModel("phone", Map.of(), null);
+        final ComplexQueryRequestModel secondPage = new ComplexQueryRequestModel("phone", Map.of(), null);
+        secondPage.setFrom(60);
+
+        assertNotEquals(ComplexQueryKeys.hash(firstPage, RetrievalMode.LEXICAL, VERSION), ComplexQueryKeys.hash(secondPage, RetrievalMode.LEXICAL, VERSION));
+    }
+
+    @Test
+    void facetKeyIgnoresPaginationAndOrder() {
+        final ComplexQueryRequestModel firstPage = new ComplexQueryRequestModel("phone", Map.of("category", "phones"), Order.ASC);
+        final ComplexQueryRequestModel secondPage = new ComplexQueryRequestModel("Phone ", Map.of("category", "phones"), Order.DESC);
+        secondPage.setFrom(60);
+        secondPage.setSize(30);
+        final ComplexQueryRequestModel otherFilter = new ComplexQueryRequestModel("phone", Map.of("category", "tablets"), Order.ASC);
+
+        assertEquals(ComplexQueryKeys.facetHash(firstPage, VERSION), ComplexQueryKeys.facetHash(secondPage, VERSION));
+        assertNotEquals(ComplexQueryKeys.facetHash(firstPage, VERSION), ComplexQueryKeys.facetHash(otherFilter, VERSION));
+        assertNotEquals(ComplexQueryKeys.hash(firstPage, RetrievalMode.LEXICAL, VERSION), ComplexQueryKeys.facetHash(firstPage, VERSION));
+    }
+
+    @Test
+    void retrievalModeChangesKey() {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("phone", Map.of(), null);
+
+        assertNotEquals(ComplexQueryKeys.hash(request, RetrievalMode.LEXICAL, VERSION), ComplexQueryKeys.hash(request, RetrievalMode.KNN, VERSION));
+    }
+
+    @Test
+    void settingsVersionChangesKeys() {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("phone", Map.of(), null);
+
+        assertNotEquals(ComplexQueryKeys.hash(request, RetrievalMode.LEXICAL, VERSION),
+                ComplexQueryKeys.hash(request, RetrievalMode.LEXICAL, "2"));
+        assertNotEquals(ComplexQueryKeys.facetHash(request, VERSION), ComplexQueryKeys.facetHash(request, "2"));
+    }
+}
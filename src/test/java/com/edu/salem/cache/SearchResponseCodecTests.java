@@ -0,0 +1,45 @@
+package com.edu.salem.cache;
+
+import com.edu.salem.config.RedisConfig;
+import com.edu.salem.model.PaginationModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SearchResponseCodecTests {
+
+    @Test
+    void roundTripsSearchResponseWithCompression() {
+        final SearchResponseCodec codec = new SearchResponseCodec(RedisConfig.redisSerializer(), 0);
+        final SearchResponseModel searchResponseModel = new SearchResponseModel.Builder(2L,
+                List.of(new Product("1", "Smartphone", "phones", "acme"), new Product("2", null, "phones", "acme")),
+                Map.of("category", Map.of("phones", 2L)))
+                .setPaginationModel(new PaginationModel(60, 0, "cursor"))
+                .setExact(false)
+                .build();
+
+        final SearchResponseModel decoded = (SearchResponseModel) codec.deserialize(codec.serialize(searchResponseModel));
+
+        assertEquals(2L, decoded.getHits());
+        assertFalse(decoded.isExact());
+        assertEquals("Smartphone", decoded.getProducts().get(0).getTitle());
+        assertNull(decoded.getProducts().get(1).getTitle());
+        assertEquals(2L, decoded.getFilters().get("category").get("phones"));
+        assertEquals(60, decoded.getPagination().getSize());
+        assertEquals("cursor", decoded.getPagination().getCursor());
+    }
+
+    @Test
+    void delegatesOtherValues() {
+        final SearchResponseCodec codec = new SearchResponseCodec(RedisConfig.redisSerializer(), -1);
+
+        assertEquals("value", codec.deserialize(codec.serialize("value")));
+    }
+}
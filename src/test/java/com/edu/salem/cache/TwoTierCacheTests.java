@@ -0,0 +1,65 @@
+package com.edu.salem.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TwoTierCacheTests {
+
+    private ConcurrentMapCache remoteCache;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remoteCache = new ConcurrentMapCache("complexQuery", false);
+        cache = new TwoTierCache("complexQuery", Caffeine.newBuilder().build(), remoteCache,
+                Duration.ofSeconds(60), null, 0, 0, Runnable::run);
+    }
+
+    @Test
+    void remoteHitIsPromotedToLocalTier() {
+        remoteCache.put("key", new CacheEntry("value", System.currentTimeMillis()));
+
+        assertEquals("value", cache.get("key", String.class));
+        remoteCache.evict("key");
+        assertEquals("value", cache.get("key", String.class));
+    }
+
+    @Test
+    void loaderRunsOnceAndPopulatesBothTiers() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        cache.get("key", () -> "value" + loads.incrementAndGet());
+        cache.get("key", () -> "value" + loads.incrementAndGet());
+
+        assertEquals(1, loads.get());
+        assertEquals("value1", remoteCache.get("key", CacheEntry.class).getValue());
+    }
+
+    @Test
+    void staleEntryIsServedWhileRefreshing() {
+        final TwoTierCache staleCache = new TwoTierCache("complexQuery", null, remoteCache,
+                Duration.ofSeconds(60), null, 0, 0, Runnable::run);
+        remoteCache.put("key", new CacheEntry("stale", System.currentTimeMillis() - 120_000));
+
+        assertNull(staleCache.get("key"));
+        assertEquals("stale", staleCache.get("key", () -> "fresh"));
+        assertEquals("fresh", staleCache.get("key", String.class));
+    }
+
+    @Test
+    void evictClearsBothTiers() {
+        cache.put("key", "value");
+        cache.evict("key");
+
+        assertNull(cache.get("key"));
+        assertNull(remoteCache.get("key"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.edu.salem.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.Node;
+import org.opensearch.client.NodeSelector;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.sniff.SniffOnFailureListener;
+import org.opensearch.client.sniff.Sniffer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class OpenSearchConfigTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(OpenSearchConfig.class)
+            .withPropertyValues(
+                    "management.data.openSearch.host=localhost",
+                    "management.data.openSearch.user=admin",
+                    "management.data.openSearch.password=admin");
+
+    @Test
+    void buildsAPooledClientAcrossEveryConfiguredHost() {
+        contextRunner.withPropertyValues(
+                        "management.data.openSearch.hosts=node-1:9200, node-2:9201,node-3",
+                        "management.data.openSearch.scheme=https",
+                        "management.data.openSearch.transport.maxConnTotal=64",
+                        "management.data.openSearch.transport.maxConnPerRoute=16",
+                        "management.data.openSearch.transport.connectTimeoutMillis=250",
+                        "management.data.openSearch.transport.socketTimeoutMillis=3000",
+                        "management.data.openSearch.transport.connectionRequestTimeoutMillis=100")
+                .run(context -> {
+                    final RestClient restClient = context.getBean(RestClient.class);
+                    assertEquals(List.of(new HttpHost("node-1", 9200, "https"), new HttpHost("node-2", 9201, "https"),
+                                    new HttpHost("node-3", 9200, "https")),
+                            restClient.getNodes().stream().map(Node::getHost).toList());
+
+                    final Object httpClient = ReflectionTestUtils.getField(restClient, "client");
+                    final PoolingNHttpClientConnectionManager pool = assertInstanceOf(
+                            PoolingNHttpClientConnectionManager.class, ReflectionTestUtils.getField(httpClient, "connmgr"));
+                    assertEquals(64, pool.getMaxTotal());
+                    assertEquals(16, pool.getDefaultMaxPerRoute());
+                    final RequestConfig requestConfig =
+                            (RequestConfig) ReflectionTestUtils.getField(httpClient, "defaultConfig");
+                    assertNotNull(requestConfig);
+                    assertEquals(250, requestConfig.getConnectTimeout());
+                    assertEquals(3000, requestConfig.getSocketTimeout());
+                    assertEquals(100, requestConfig.getConnectionRequestTimeout());
+                    assertEquals(true, ReflectionTestUtils.getField(restClient, "compressionEnabled"));
+                });
+    }
+
+    @Test
+    void selectsNodesByTheConfiguredPolicy() {
+        contextRunner.run(context -> assertSame(NodeSelector.SKIP_DEDICATED_CLUSTER_MANAGERS,
+                ReflectionTestUtils.getField(context.getBean(RestClient.class), "nodeSelector")));
+        contextRunner.withPropertyValues("management.data.openSearch.transport.skipDedicatedClusterManagers=false")
+                .run(context -> assertSame(NodeSelector.ANY,
+                        ReflectionTestUtils.getField(context.getBean(RestClient.class), "nodeSelector")));
+    }
+
+    @Test
+    void sniffsOnlyWhenEnabledAndOnFailure() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("openSearchSniffer"));
+            assertFalse(ReflectionTestUtils.getField(context.getBean(RestClient.class), "failureListener")
+                    instanceof SniffOnFailureListener);
+        });
+        contextRunner.withPropertyValues(
+                        "management.data.openSearch.transport.sniff.enabled=true",
+                        "management.data.openSearch.transport.sniff.intervalMillis=3600000")
+                .run(context -> {
+                    final SniffOnFailureListener failureListener = assertInstanceOf(SniffOnFailureListener.class,
+                            ReflectionTestUtils.getField(context.getBean(RestClient.class), "failureListener"));
+                    assertSame(context.getBean(Sniffer.class), ReflectionTestUtils.getField(failureListener, "sniffer"));
+                });
+    }
+}
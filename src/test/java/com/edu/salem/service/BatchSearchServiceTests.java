@@ -0,0 +1,75 @@
+package com.edu.salem.service;
+
+import com.edu.salem.cache.ComplexQueryKeyGenerator;
+import com.edu.salem.model.BatchQueryItemModel;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.metrics.SearchMetrics;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import com.edu.salem.service.query.SearchCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BatchSearchServiceTests {
+
+    private final ComplexQueryKeyGenerator keyGenerator = new ComplexQueryKeyGenerator(mock(SearchMetrics.class),
+            new QueryBuilder(0.7, true, "id", "", 10000,
+                    QuerySettings.parse("title, entity", "category, entity", 0, 0, "")),
+            RetrievalMode.LEXICAL);
+
+    @Test
+    void sendsOnlyCacheMissesToOpenSearchAndKeepsRequestOrder() throws Exception {
+        final SearchService searchService = mock(SearchService.class);
+        final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("complexQuery");
+        final ComplexQueryRequestModel cachedRequest = new ComplexQueryRequestModel("tv", Map.of(), null);
+        final ComplexQueryRequestModel missedRequest = new ComplexQueryRequestModel("phone", Map.of(), null);
+        final ComplexQueryRequestModel invalidRequest = new ComplexQueryRequestModel("laptop", Map.of(), null);
+        invalidRequest.setCursor("not a cursor");
+        final SearchResponseModel cached = new SearchResponseModel.Builder(1L, List.of(), null).build();
+        final SearchResponseModel loaded = new SearchResponseModel.Builder(2L, List.of(), null).build();
+        cacheManager.getCache("complexQuery").put(keyGenerator.key(cachedRequest), cached);
+        when(searchService.complexQueryBatchAsync(List.of(missedRequest)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(Optional.of(loaded))));
+
+        final List<BatchQueryItemModel> items = new BatchSearchService(searchService, cacheManager, keyGenerator, 20, RetrievalMode.LEXICAL)
+                .complexQueryBatch(List.of(cachedRequest, missedRequest, invalidRequest))
+                .get();
+
+        assertEquals(200, items.get(0).getStatus());
+        assertSame(cached, items.get(0).getResponse());
+        assertEquals(200, items.get(1).getStatus());
+        assertSame(loaded, items.get(1).getResponse());
+        assertEquals(400, items.get(2).getStatus());
+        assertNotNull(cacheManager.getCache("complexQuery").get(keyGenerator.key(missedRequest)));
+        verify(searchService).complexQueryBatchAsync(List.of(missedRequest));
+    }
+
+    @Test
+    void rejectsCursorsWhenRetrievalIsNotLexical() throws Exception {
+        final SearchService searchService = mock(SearchService.class);
+        final ComplexQueryRequestModel pagedRequest = new ComplexQueryRequestModel("tv", Map.of(), null);
+        pagedRequest.setCursor(new SearchCursor(List.of("1.5", "sku-1"), null).encode());
+
+        final List<BatchQueryItemModel> items = new BatchSearchService(searchService,
+                new ConcurrentMapCacheManager("complexQuery"), keyGenerator, 20, RetrievalMode.HYBRID)
+                .complexQueryBatch(List.of(pagedRequest))
+                .get();
+
+        assertEquals(400, items.get(0).getStatus());
+        verifyNoInteractions(searchService);
+    }
+}
@@ -0,0 +1,281 @@
+package com.edu.salem.service;
+
+import com.edu.salem.cache.ComplexQueryKeyGenerator;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.metrics.SearchMetrics;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import com.edu.salem.service.query.StoredSearchTemplate;
+import com.edu.salem.service.resilience.AdaptiveConcurrencyLimiter;
+import com.edu.salem.service.resilience.RequestHedger;
+import com.edu.salem.service.vector.KnnQueryBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.client.Cancellable;
+import org.opensearch.client.Request;
+import org.opensearch.client.Response;
+import org.opensearch.client.ResponseListener;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.MsearchRequest;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OpenSearchServiceTests {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String HITS = """
+            {"took":1,"timed_out":false,"_shards":{"total":1,"successful":1,"failed":0},
+             "hits":{"total":{"value":1,"relation":"eq"},"hits":[{"_index":"products","_id":"1",
+             "_source":{"id":"1","title":"Galaxy Z Flip5","category":"phones","entity":"samsung"}}]}}
+            """;
+    private static final String AGGREGATIONS = """
+            {"took":1,"timed_out":false,"_shards":{"total":1,"successful":1,"failed":0},
+             "hits":{"total":{"value":1,"relation":"eq"},"hits":[]},
+             "aggregations":{"sterms#category":{"doc_count_error_upper_bound":0,"sum_other_doc_count":0,
+             "buckets":[{"key":"phones","doc_count":1}]}}}
+            """;
+    private static final String HITS_WITH_AGGREGATIONS = """
+            {"took":1,"timed_out":false,"_shards":{"total":1,"successful":1,"failed":0},
+             "hits":{"total":{"value":1,"relation":"eq"},"hits":[{"_index":"products","_id":"1",
+             "_source":{"id":"1","title":"Galaxy Z Flip5","category":"phones","entity":"samsung"}}]},
+             "aggregations":{"sterms#category":{"doc_count_error_upper_bound":0,"sum_other_doc_count":0,
+             "buckets":[{"key":"phones","doc_count":1}]}}}
+            """;
+    private final ExecutorService searchExecutor = Executors.newFixedThreadPool(2);
+    private final RestClient restClient = mock(RestClient.class);
+    private final OpenSearchAsyncClient client = mock(OpenSearchAsyncClient.class);
+    private final CacheManager cacheManager = mock(CacheManager.class);
+    private final BlockingQueue<PendingSearch> searches = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void shutdown() {
+        searchExecutor.shutdownNow();
+    }
+
+    @Test
+    void readsTheFacetCacheOffTheCallerThread() throws Exception {
+        final AtomicReference<Thread> facetReader = new AtomicReference<>();
+        final CountDownLatch read = new CountDownLatch(1);
+        final Cache facets = new ConcurrentMapCache("complexQueryFacets") {
+            @Override
+            public ValueWrapper get(final Object key) {
+                facetReader.set(Thread.currentThread());
+                read.countDown();
+                return super.get(key);
+            }
+        };
+        when(cacheManager.getCache("complexQueryFacets")).thenReturn(facets);
+        when(restClient.performRequestAsync(any(), any())).thenReturn(mock(Cancellable.class));
+
+        openSearchService(SearchMode.SPLIT, 200, 100).complexQueryAsync(new ComplexQueryRequestModel("phone", Map.of(), null));
+
+        assertTrue(read.await(1, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), facetReader.get());
+    }
+
+    @Test
+    void sendsTheHitsAndAggregationLegsTogether() throws Exception {
+        captureSearches();
+
+        final CompletableFuture<Optional<SearchResponseModel>> result = openSearchService(SearchMode.SPLIT, 1000, 1000)
+                .complexQueryAsync(new ComplexQueryRequestModel("phone", Map.of(), null));
+        final PendingSearch first = nextSearch();
+        final PendingSearch second = nextSearch();
+        final PendingSearch hits = first.isAggregationLeg() ? second : first;
+        final PendingSearch aggregations = first.isAggregationLeg() ? first : second;
+        assertFalse(hits.isAggregationLeg());
+        assertTrue(aggregations.isAggregationLeg());
+
+        hits.respond(HITS);
+        aggregations.respond(AGGREGATIONS);
+        final SearchResponseModel searchResponseModel = result.get(1, TimeUnit.SECONDS).orElseThrow();
+        assertEquals(1, searchResponseModel.getProducts().size());
+        assertEquals(Map.of("phones", 1L), searchResponseModel.getFilters().get("category"));
+    }
+
+    @Test
+    void returnsHitsWithoutFacetsAndCancelsTheSlowAggregationLeg() throws Exception {
+        captureSearches();
+
+        final CompletableFuture<Optional<SearchResponseModel>> result = openSearchService(SearchMode.SPLIT, 1000, 50)
+                .complexQueryAsync(new ComplexQueryRequestModel("phone", Map.of(), null));
+        final PendingSearch first = nextSearch();
+        final PendingSearch second = nextSearch();
+        final PendingSearch hits = first.isAggregationLeg() ? second : first;
+        final PendingSearch aggregations = first.isAggregationLeg() ? first : second;
+
+        hits.respond(HITS);
+        final SearchResponseModel searchResponseModel = result.get(1, TimeUnit.SECONDS).orElseThrow();
+        assertEquals(1, searchResponseModel.getProducts().size());
+        assertNull(searchResponseModel.getFilters());
+        assertTrue(aggregations.awaitCancelled());
+        verify(hits.cancellable(), never()).cancel();
+    }
+
+    @Test
+    void singleModeReadsHitsAndFacetsFromOneRequest() throws Exception {
+        captureSearches();
+
+        final CompletableFuture<Optional<SearchResponseModel>> result = openSearchService(SearchMode.SINGLE, 1000, 1000)
+                .complexQueryAsync(new ComplexQueryRequestModel("phone", Map.of(), null));
+        final PendingSearch search = nextSearch();
+        assertFalse(search.isAggregationLeg());
+        assertTrue(search.body().has("aggregations"));
+
+        search.respond(HITS_WITH_AGGREGATIONS);
+        final SearchResponseModel searchResponseModel = result.get(1, TimeUnit.SECONDS).orElseThrow();
+        assertEquals(1, searchResponseModel.getProducts().size());
+        assertEquals(Map.of("phones", 1L), searchResponseModel.getFilters().get("category"));
+        assertNull(searches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void multiSearchModeBatchesBothLegsIntoOneCall() throws Exception {
+        when(client.msearch(any(MsearchRequest.class), eq(Product.class))).thenReturn(new CompletableFuture<>());
+
+        openSearchService(SearchMode.MSEARCH, 1000, 1000)
+                .complexQueryAsync(new ComplexQueryRequestModel("phone", Map.of(), null));
+
+        final ArgumentCaptor<MsearchRequest> multiSearch = ArgumentCaptor.forClass(MsearchRequest.class);
+        verify(client, timeout(1000)).msearch(multiSearch.capture(), eq(Product.class));
+        assertEquals(2, multiSearch.getValue().searches().size());
+        assertEquals(0, multiSearch.getValue().searches().get(1).body().size());
+        verify(restClient, never()).performRequestAsync(any(), any());
+    }
+
+    @Test
+    void asyncQueryReturnsBeforeOpenSearchAnswers() throws Exception {
+        captureSearches();
+
+        final CompletableFuture<Optional<SearchResponseModel>> result = openSearchService(SearchMode.SINGLE, 1000, 1000)
+                .complexQueryAsync(new ComplexQueryRequestModel("phone", Map.of(), null));
+        final PendingSearch search = nextSearch();
+        assertFalse(result.isDone());
+
+        search.respond(HITS_WITH_AGGREGATIONS);
+        assertEquals(1, result.get(1, TimeUnit.SECONDS).orElseThrow().getProducts().size());
+        verify(search.cancellable(), never()).cancel();
+    }
+
+    @Test
+    void timedOutSearchCancelsItsHttpRequest() throws Exception {
+        captureSearches();
+
+        final CompletableFuture<Optional<SearchResponseModel>> result = openSearchService(SearchMode.SINGLE, 50, 1000)
+                .complexQueryAsync(new ComplexQueryRequestModel("phone", Map.of(), null));
+        final PendingSearch search = nextSearch();
+
+        final ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        assertTrue(search.awaitCancelled());
+    }
+
+    private void captureSearches() {
+        when(restClient.performRequestAsync(any(), any())).thenAnswer(invocation -> {
+            final Cancellable cancellable = mock(Cancellable.class);
+            final CountDownLatch cancelled = new CountDownLatch(1);
+            doAnswer(cancel -> {
+                cancelled.countDown();
+                return null;
+            }).when(cancellable).cancel();
+            searches.add(new PendingSearch(invocation.getArgument(0), invocation.getArgument(1), cancellable, cancelled));
+            return cancellable;
+        });
+    }
+
+    private PendingSearch nextSearch() throws InterruptedException {
+        final PendingSearch search = searches.poll(1, TimeUnit.SECONDS);
+        assertNotNull(search);
+        return search;
+    }
+
+    private OpenSearchService openSearchService(final SearchMode searchMode, final long hitsTimeoutMillis,
+                                                final long aggregationTimeoutMillis) {
+        final OpenSearchTransport transport = mock(OpenSearchTransport.class);
+        when(transport.jsonpMapper()).thenReturn(new JacksonJsonpMapper());
+        final QueryBuilder queryBuilder = new QueryBuilder(0.7, true, "id", "", 10000,
+                QuerySettings.parse("title, entity", "category, entity", 0, 0, ""));
+        final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        final SearchMetrics searchMetrics = new SearchMetrics(false, new SimpleMeterRegistry(),
+                beanFactory.getBeanProvider(ObservationRegistry.class),
+                beanFactory.getBeanProvider(CircuitBreakerRegistry.class));
+        return new OpenSearchService("products", hitsTimeoutMillis, aggregationTimeoutMillis,
+                AggregationTimeoutPolicy.HITS_ONLY, searchMode,
+                false, "1m", true, RetrievalMode.LEXICAL, 60, 500, true,
+                client, restClient, transport, queryBuilder,
+                new StoredSearchTemplate(false, queryBuilder, client), mock(KnnQueryBuilder.class),
+                new AdaptiveConcurrencyLimiter(false, 32, 4, 256, 800, 0.9), cacheManager,
+                new ComplexQueryKeyGenerator(searchMetrics, queryBuilder, RetrievalMode.LEXICAL),
+                new RequestHedger(false, 95, 20, 500, 5, 100), searchMetrics, searchExecutor);
+    }
+
+    private record PendingSearch(Request request, ResponseListener listener, Cancellable cancellable,
+                                 CountDownLatch cancelled) {
+
+        // Cancellable.cancel() is synchronized, so a timed verify would hold the mock's monitor against the caller.
+        boolean awaitCancelled() throws InterruptedException {
+            return cancelled.await(1, TimeUnit.SECONDS);
+        }
+
+        JsonNode body() throws Exception {
+            return OBJECT_MAPPER.readTree(EntityUtils.toString(request.getEntity()));
+        }
+
+        boolean isAggregationLeg() throws Exception {
+            return body().path("size").asInt(-1) == 0;
+        }
+
+        void respond(final String body) {
+            final Response response = mock(Response.class);
+            when(response.getEntity()).thenReturn(new StringEntity(body, ContentType.APPLICATION_JSON));
+            listener.onSuccess(response);
+        }
+    }
+}
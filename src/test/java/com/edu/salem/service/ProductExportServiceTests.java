@@ -0,0 +1,92 @@
+package com.edu.salem.service;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.pit.CreatePitResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.HitsMetadata;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductExportServiceTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamsEverySliceAsNdjson() throws Exception {
+        final OpenSearchAsyncClient client = mock(OpenSearchAsyncClient.class);
+        final CreatePitResponse createPitResponse = mock(CreatePitResponse.class);
+        when(createPitResponse.pitId()).thenReturn("pit");
+        when(client.createPit(any(Function.class)))
+                .thenReturn(CompletableFuture.completedFuture(createPitResponse));
+        when(client.deletePit(any(Function.class))).thenReturn(new CompletableFuture<>());
+        when(client.search(any(SearchRequest.class), eq(Product.class))).thenAnswer(invocation -> {
+            final SearchRequest request = invocation.getArgument(0);
+            final boolean firstSlice = request.slice().id() == 0;
+            final boolean firstPage = request.searchAfter().isEmpty();
+            final List<String> ids = firstSlice ? (firstPage ? List.of("1", "2") : List.of("3")) : List.of("4");
+            return CompletableFuture.completedFuture(page(ids));
+        });
+
+        final ProductExportService exportService = new ProductExportService("products", 2, 2, 1, "1m",
+                client, new QueryBuilder(0.3, true, "id", "", 10000,
+                        QuerySettings.parse("title, entity", "category, entity", 0, 0, "")),
+                objectMapper, Executors.newCachedThreadPool());
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        exportService.export(new ComplexQueryRequestModel("phone", Map.of(), null), body);
+
+        final Set<String> ids = Arrays.stream(body.toString(StandardCharsets.UTF_8).split("\n"))
+                .filter(line -> !line.isBlank())
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, Product.class).getId();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("1", "2", "3", "4"), ids);
+        verify(client).deletePit(any(Function.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SearchResponse<Product> page(final List<String> ids) {
+        final List<Hit<Product>> hits = ids.stream()
+                .map(id -> Hit.<Product>of(h -> h
+                        .index("products")
+                        .id(id)
+                        .source(new Product(id, "Phone " + id, "phones", "acme"))
+                        .sort(List.of(id))))
+                .toList();
+        final HitsMetadata<Product> hitsMetadata = mock(HitsMetadata.class);
+        when(hitsMetadata.hits()).thenReturn(hits);
+        final SearchResponse<Product> response = mock(SearchResponse.class);
+        when(response.hits()).thenReturn(hitsMetadata);
+        return response;
+    }
+}
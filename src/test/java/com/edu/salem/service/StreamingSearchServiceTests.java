@@ -0,0 +1,183 @@
+package com.edu.salem.service;
+
+import com.edu.salem.cache.ComplexQueryKeyGenerator;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.metrics.SearchMetrics;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import com.edu.salem.service.query.SearchCursor;
+import com.edu.salem.service.resilience.AdaptiveConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.client.Cancellable;
+import org.opensearch.client.Response;
+import org.opensearch.client.ResponseListener;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StreamingSearchServiceTests {
+
+    private static final String SEARCH_RESPONSE = """
+            {"hits":{"total":{"value":42,"relation":"eq"},"hits":[
+              {"_source":{"id":"1","title":"Smart Phone","category":"phones","entity":"acme"},"sort":[1.5,"1"]},
+              {"_source":{"id":"2","title":"Old Phone","category":"phones","entity":"initech"},"sort":[0.5,"2"]}]},
+             "aggregations":{"category":{"buckets":[{"key":"phones","doc_count":2}]},
+                             "entity":{"buckets":[{"key":"acme","doc_count":1},{"key":"initech","doc_count":1}]}}}
+            """;
+
+    private static final String LOWER_BOUND_RESPONSE = """
+            {"hits":{"total":{"value":10000,"relation":"gte"},"hits":[]}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService searchExecutor = Executors.newFixedThreadPool(2);
+    private final RestClient restClient = mock(RestClient.class);
+    private final ConcurrentMapCache complexQueryCache = new ConcurrentMapCache("complexQuery");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(true, 32, 4, 256, 800, 0.9);
+    private final QueryBuilder queryBuilder = new QueryBuilder(0.3, true, "id", "", 10000,
+            QuerySettings.parse("title, entity", "category, entity", 0, 0, ""));
+    private final SearchMetrics searchMetrics = searchMetrics();
+    private final ComplexQueryKeyGenerator keyGenerator =
+            new ComplexQueryKeyGenerator(searchMetrics, queryBuilder, RetrievalMode.LEXICAL);
+
+    @AfterEach
+    void shutdown() {
+        searchExecutor.shutdownNow();
+    }
+
+    @Test
+    void streamsSearchResponseInModelShape() throws Exception {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("phone", Map.of(), null);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        streamingSearchService().writeResponse(
+                new ByteArrayInputStream(SEARCH_RESPONSE.getBytes(StandardCharsets.UTF_8)), body, request);
+
+        final SearchResponseModel searchResponse = objectMapper.readValue(body.toByteArray(), SearchResponseModel.class);
+        assertEquals(42L, searchResponse.getHits());
+        assertTrue(searchResponse.isExact());
+        assertEquals(2, searchResponse.getProducts().size());
+        assertEquals("Old Phone", searchResponse.getProducts().get(1).getTitle());
+        assertEquals(Map.of("phones", 2L), searchResponse.getFilters().get("category"));
+        assertEquals(Map.of("acme", 1L, "initech", 1L), searchResponse.getFilters().get("entity"));
+        assertEquals(60, searchResponse.getPagination().getSize());
+        assertNull(searchResponse.getPagination().getCursor());
+        assertEquals(3.0, meterRegistry.summary("salem.search.results.facets").totalAmount());
+    }
+
+    @Test
+    void streamsTheNextCursorOfAFullPage() throws Exception {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("phone", Map.of(), null);
+        request.setSize(2);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        streamingSearchService().writeResponse(
+                new ByteArrayInputStream(SEARCH_RESPONSE.getBytes(StandardCharsets.UTF_8)), body, request);
+
+        final SearchResponseModel searchResponse = objectMapper.readValue(body.toByteArray(), SearchResponseModel.class);
+        assertEquals(List.of("0.5", "2"), SearchCursor.decode(searchResponse.getPagination().getCursor()).getSearchAfter());
+    }
+
+    @Test
+    void streamsLowerBoundTotalsAsInexact() throws Exception {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("phone", Map.of(), null);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        streamingSearchService().writeResponse(
+                new ByteArrayInputStream(LOWER_BOUND_RESPONSE.getBytes(StandardCharsets.UTF_8)), body, request);
+
+        final SearchResponseModel searchResponse = objectMapper.readValue(body.toByteArray(), SearchResponseModel.class);
+        assertEquals(10000L, searchResponse.getHits());
+        assertFalse(searchResponse.isExact());
+        assertTrue(searchResponse.getProducts().isEmpty());
+    }
+
+    @Test
+    void searchesAsynchronouslyThroughTheConcurrencyLimiter() throws Exception {
+        when(restClient.performRequestAsync(any(), any())).thenReturn(mock(Cancellable.class));
+
+        final CompletableFuture<StreamingResponseBody> result = streamingSearchService()
+                .complexQueryStream(new ComplexQueryRequestModel("phone", Map.of(), null));
+        final ArgumentCaptor<ResponseListener> listener = ArgumentCaptor.forClass(ResponseListener.class);
+        verify(restClient, timeout(1000)).performRequestAsync(any(), listener.capture());
+        assertFalse(result.isDone());
+        assertEquals(1, concurrencyLimiter.getInFlight());
+
+        final Response response = mock(Response.class);
+        when(response.getEntity()).thenReturn(new StringEntity(SEARCH_RESPONSE, ContentType.APPLICATION_JSON));
+        listener.getValue().onSuccess(response);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        result.get(1, TimeUnit.SECONDS).writeTo(body);
+
+        assertEquals(2, objectMapper.readValue(body.toByteArray(), SearchResponseModel.class).getProducts().size());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+        verify(restClient, never()).performRequest(any());
+        assertEquals(1, meterRegistry.timer("salem.search.stage", "stage", "hits").count());
+    }
+
+    @Test
+    void streamsACachedResultWithoutSearching() throws Exception {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("phone", Map.of(), null);
+        complexQueryCache.put(keyGenerator.key(request), new SearchResponseModel.Builder(1L,
+                List.of(new Product("1", "Smart Phone", "phones", "acme")), null).build());
+
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        streamingSearchService().complexQueryStream(request).get(1, TimeUnit.SECONDS).writeTo(body);
+
+        assertEquals("Smart Phone", objectMapper.readValue(body.toByteArray(), SearchResponseModel.class)
+                .getProducts().get(0).getTitle());
+        verify(restClient, never()).performRequestAsync(any(), any());
+    }
+
+    private StreamingSearchService streamingSearchService() {
+        final OpenSearchTransport transport = mock(OpenSearchTransport.class);
+        when(transport.jsonpMapper()).thenReturn(new JacksonJsonpMapper());
+        final CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache("complexQuery")).thenReturn(complexQueryCache);
+        return new StreamingSearchService("products", 1000, restClient, transport, queryBuilder, objectMapper,
+                concurrencyLimiter, cacheManager, keyGenerator, searchMetrics, searchExecutor);
+    }
+
+    private SearchMetrics searchMetrics() {
+        final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        return new SearchMetrics(false, meterRegistry,
+                beanFactory.getBeanProvider(ObservationRegistry.class),
+                beanFactory.getBeanProvider(CircuitBreakerRegistry.class));
+    }
+}
@@ -0,0 +1,46 @@
+package com.edu.salem.service.hotset;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.query.QuerySettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HotSetIndexTests {
+
+    private final HotSetIndex index = HotSetIndex.build(List.of(
+            new Product("1", "Samsung Galaxy Z Flip5", "phones", "samsung"),
+            new Product("2", "Galaxy Buds", "audio", "samsung"),
+            new Product("3", "Galaxy Z Flip5 case for Galaxy phones", "phones", "acme"),
+            new Product("4", "iPhone 15", "phones", "apple")));
+    private final List<QuerySettings.FacetSettings> facets =
+            QuerySettings.parseFacets("category, entity", new QuerySettings.FacetSettings(null, 0, 0, ""));
+
+    @Test
+    void matchesAllTermsAcrossTitleAndEntityWithinFilters() {
+        final SearchResponseModel response = index.search(
+                new ComplexQueryRequestModel("Galaxy samsung", Map.of("category", "phones"), null), facets);
+
+        assertEquals(1L, response.getHits());
+        assertEquals("1", response.getProducts().get(0).getId());
+        assertEquals(Map.of("phones", 1L), response.getFilters().get("category"));
+    }
+
+    @Test
+    void ranksShortFieldsFirstAndCountsFacetsOverTheWholeMatchSet() {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("galaxy", Map.of(), null);
+        request.setSize(1);
+
+        final SearchResponseModel response = index.search(request, facets);
+
+        assertEquals(3L, response.getHits());
+        assertEquals(List.of("2"), response.getProducts().stream().map(Product::getId).toList());
+        assertEquals(Map.of("samsung", 2L, "acme", 1L), response.getFilters().get("entity"));
+        assertEquals(0L, index.search(new ComplexQueryRequestModel("galaxy pixel", Map.of(), null), facets).getHits());
+    }
+}
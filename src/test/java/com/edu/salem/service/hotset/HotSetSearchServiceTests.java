@@ -0,0 +1,94 @@
+package com.edu.salem.service.hotset;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Product;
+import com.edu.salem.service.OpenSearchService;
+import com.edu.salem.service.RetrievalMode;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.aggregations.Aggregate;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.TotalHitsRelation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotSetSearchServiceTests {
+
+    private final OpenSearchAsyncClient client = mock(OpenSearchAsyncClient.class);
+    private final ComplexQueryRequestModel request = new ComplexQueryRequestModel("galaxy", Map.of("category", "phones"), null);
+
+    @Test
+    void servesOnlyLexicalRetrievalFromTheHotSet() {
+        final HotSetIndex current = HotSetIndex.build(List.of(new Product("1", "Galaxy Z Flip5", "phones", "samsung")));
+
+        assertTrue(hotSetSearchService(RetrievalMode.LEXICAL).accepts(current, request));
+        assertFalse(hotSetSearchService(RetrievalMode.KNN).accepts(current, request));
+        assertFalse(hotSetSearchService(RetrievalMode.HYBRID).accepts(current, request));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reloadsTheSliceOnlyWhenItsFingerprintChanges() throws Exception {
+        when(client.search(any(Function.class), eq(Void.class)))
+                .thenReturn(CompletableFuture.completedFuture(fingerprint(1, 7)),
+                        CompletableFuture.completedFuture(fingerprint(1, 7)),
+                        CompletableFuture.completedFuture(fingerprint(1, 9)));
+        when(client.search(any(Function.class), eq(Product.class)))
+                .thenReturn(CompletableFuture.completedFuture(slice()));
+        final HotSetSearchService hotSetSearchService = hotSetSearchService(RetrievalMode.LEXICAL);
+
+        hotSetSearchService.refresh();
+        hotSetSearchService.refresh();
+        verify(client, times(1)).search(any(Function.class), eq(Product.class));
+
+        hotSetSearchService.refresh();
+        verify(client, times(2)).search(any(Function.class), eq(Product.class));
+        assertTrue(hotSetSearchService.isLoaded());
+    }
+
+    private HotSetSearchService hotSetSearchService(final RetrievalMode retrievalMode) {
+        return new HotSetSearchService("products", "category", Set.of("phones"), 100, 10, 1000, retrievalMode,
+                mock(OpenSearchService.class), client, new QueryBuilder(0.7, true, "id", "", 10000,
+                QuerySettings.parse("title, entity", "category, entity", 0, 0, "")));
+    }
+
+    private static SearchResponse<Void> fingerprint(final long documents, final double seqNoSum) {
+        return new SearchResponse.Builder<Void>()
+                .took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h.total(t -> t.value(documents).relation(TotalHitsRelation.Eq)).hits(List.of()))
+                .aggregations(Map.of("seqNoSum", Aggregate.of(a -> a.sum(sum -> sum.value(seqNoSum)))))
+                .build();
+    }
+
+    private static SearchResponse<Product> slice() {
+        final Hit<Product> hit = new Hit.Builder<Product>()
+                .index("products")
+                .id("1")
+                .source(new Product("1", "Galaxy Z Flip5", "phones", "samsung"))
+                .build();
+        return new SearchResponse.Builder<Product>()
+                .took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h.total(t -> t.value(1).relation(TotalHitsRelation.Eq)).hits(List.of(hit)))
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.edu.salem.service.metrics;
+
+import com.edu.salem.model.SearchResponseModel;
+import com.edu.salem.service.metrics.SearchMetrics.Fallback;
+import com.edu.salem.service.metrics.SearchMetrics.Stage;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchMetricsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    private final SearchMetrics searchMetrics = new SearchMetrics(false, meterRegistry,
+            beanFactory.getBeanProvider(ObservationRegistry.class),
+            beanFactory.getBeanProvider(CircuitBreakerRegistry.class));
+
+    @Test
+    void recordsStageTimersPerLeg() {
+        final CompletableFuture<String> leg = new CompletableFuture<>();
+
+        searchMetrics.recordLeg(Stage.AGGREGATIONS, () -> leg);
+        searchMetrics.record(Stage.BUILD, () -> "body");
+        leg.complete("{}");
+
+        assertEquals(1, meterRegistry.get("salem.search.stage").tag("stage", "aggregations").timer().count());
+        assertEquals(1, meterRegistry.get("salem.search.stage").tag("stage", "build").timer().count());
+        assertEquals(0, meterRegistry.get("salem.search.stage").tag("stage", "hits").timer().count());
+    }
+
+    @Test
+    void recordsResultSizesAndFallbacks() {
+        final SearchResponseModel searchResponseModel = new SearchResponseModel.Builder(42L, List.of(),
+                Map.of("brand", Map.of("acme", 3L, "globex", 1L))).build();
+
+        searchMetrics.recordResult(searchResponseModel);
+        searchMetrics.fallback(Fallback.STALE);
+
+        assertEquals(2, meterRegistry.get("salem.search.results.facets").summary().totalAmount());
+        assertEquals(42, meterRegistry.get("salem.search.results.hits").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("salem.search.fallbacks").tag("outcome", "stale").counter().count());
+    }
+}
@@ -0,0 +1,68 @@
+package com.edu.salem.service.query;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch._types.aggregations.TermsAggregationExecutionHint;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuerySettingsTests {
+
+    @Test
+    void parsesBoostsAndPerFacetOverrides() {
+        final QuerySettings settings = QuerySettings.parse("\"title^2.5, entity\"",
+                "category|executionHint=map, entity|size=5|shardSize=25", 20, 0, "");
+
+        assertEquals(List.of("title^2.5", "entity"), settings.searchableFieldsWithBoosts());
+        assertEquals(List.of(new QuerySettings.FacetSettings("category", 20, null, "map"),
+                new QuerySettings.FacetSettings("entity", 5, 25, null)), settings.getFacets());
+        assertThrows(IllegalArgumentException.class,
+                () -> QuerySettings.parse("title", "category|order=asc", 0, 0, ""));
+    }
+
+    @Test
+    void reloadAppliesFacetDefaultsToCurrentFacetsWithoutOverrides() {
+        final QuerySettings settings = QuerySettings.parse("title", "category, entity|size=5", 10, 0, "");
+
+        final QuerySettings reloaded = settings.reload(null, null, 50, 200, "map");
+
+        assertEquals(Map.of("title", 1.0f), reloaded.getSearchableFields());
+        assertEquals(List.of(new QuerySettings.FacetSettings("category", 50, 200, "map"),
+                new QuerySettings.FacetSettings("entity", 5, 200, "map")), reloaded.getFacets());
+        assertEquals(List.of(new QuerySettings.FacetSettings("brand", 50, null, "map")),
+                reloaded.reload(null, "brand", null, 0, null).getFacets());
+    }
+
+    @Test
+    void versionFollowsTheEffectiveSettings() {
+        final QuerySettings settings = QuerySettings.parse("title, entity", "category, entity", 0, 0, "");
+
+        assertEquals(settings.getVersion(),
+                QuerySettings.parse("\"title,entity\"", "category,entity", 0, 0, "").getVersion());
+        assertEquals(settings.getVersion(), settings.reload(null, null, null, null, null).getVersion());
+        assertNotEquals(settings.getVersion(), settings.reload("title^2, entity", null, null, null, null).getVersion());
+        assertNotEquals(settings.getVersion(), settings.reload(null, null, 50, null, null).getVersion());
+    }
+
+    @Test
+    void reloadRecompilesQueryAndAggregations() {
+        final QueryBuilder queryBuilder = new QueryBuilder(0.7, true, "id", "", 10000,
+                QuerySettings.parse("title, entity", "category, entity", 0, 0, ""));
+        final String template = queryBuilder.renderMustacheTemplate();
+
+        queryBuilder.reload(QuerySettings.parse("title^3", "brand|size=50|executionHint=map", 0, 0, ""));
+
+        assertEquals(List.of("title^3.0"), queryBuilder.buildQuery(
+                new ComplexQueryRequestModel("phone", Map.of(), null)).bool().must().get(0).multiMatch().fields());
+        assertEquals(List.of("brand"), List.copyOf(queryBuilder.buildAggregationFilters().keySet()));
+        assertEquals(50, queryBuilder.buildAggregationFilters().get("brand").terms().size());
+        assertEquals(TermsAggregationExecutionHint.Map,
+                queryBuilder.buildAggregationFilters().get("brand").terms().executionHint());
+        assertNotEquals(template, queryBuilder.renderMustacheTemplate());
+    }
+}
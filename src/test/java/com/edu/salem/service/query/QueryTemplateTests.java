@@ -0,0 +1,120 @@
+package com.edu.salem.service.query;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.model.Order;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch._types.SortOptions;
+import org.opensearch.client.opensearch.core.SearchRequest;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryTemplateTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonpMapper jsonpMapper = new JacksonJsonpMapper();
+    private final QueryBuilder queryBuilder = new QueryBuilder(0.7, true, "id", "", 10000,
+            QuerySettings.parse("title, entity", "category, entity", 0, 0, ""));
+
+    @Test
+    void rendersTheSameHitsAndAggregationsBodyAsTheTypedRequest() throws Exception {
+        final Map<String, String> filters = new LinkedHashMap<>();
+        filters.put("category", "phones");
+        filters.put("entity", "a\"cme");
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("smart \"phone\"\n", filters, null);
+        request.setFrom(120);
+
+        final SearchRequest typed = SearchRequest.of(s -> s
+                .size(request.getSize())
+                .from(request.getFrom())
+                .trackTotalHits(queryBuilder.buildTrackTotalHits(request))
+                .sort(queryBuilder.buildCursorSort())
+                .query(queryBuilder.buildQuery(request))
+                .aggregations(queryBuilder.buildAggregationFilters()));
+
+        assertEquals(toTree(typed), objectMapper.readTree(queryBuilder.renderSearch(request, null, true, true)));
+    }
+
+    @Test
+    void rendersTheSameSearchAfterAndAggregationOnlyBodies() throws Exception {
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("tv", Map.of(), null);
+        final SearchCursor cursor = new SearchCursor(List.of("1.5", "sku-9"), null);
+
+        final SearchRequest hits = SearchRequest.of(s -> s
+                .size(request.getSize())
+                .trackTotalHits(queryBuilder.buildTrackTotalHits(request))
+                .sort(queryBuilder.buildCursorSort())
+                .searchAfter(cursor.getSearchAfter())
+                .query(queryBuilder.buildQuery(request)));
+        final SearchRequest aggregations = SearchRequest.of(s -> s
+                .size(0)
+                .trackTotalHits(t -> t.enabled(false))
+                .query(queryBuilder.buildQuery(request))
+                .aggregations(queryBuilder.buildAggregationFilters()));
+
+        assertEquals(toTree(hits), objectMapper.readTree(queryBuilder.renderSearch(request, cursor, true, false)));
+        assertEquals(toTree(aggregations), objectMapper.readTree(queryBuilder.renderSearch(request, null, false, true)));
+    }
+
+    @Test
+    void rendersTheOrderSortAndExactCountOnDemand() throws Exception {
+        final QueryBuilder sortedQueryBuilder = new QueryBuilder(0.7, true, "id", "price", 1000,
+                QuerySettings.parse("title, entity", "category, entity", 0, 0, ""));
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("tv", Map.of(), Order.DESC);
+        request.setExactHits(true);
+
+        final SearchRequest typed = SearchRequest.of(s -> s
+                .size(request.getSize())
+                .from(request.getFrom())
+                .trackTotalHits(t -> t.enabled(true))
+                .sort(sortedQueryBuilder.buildSort(request))
+                .query(sortedQueryBuilder.buildQuery(request)));
+
+        assertEquals(toTree(typed), objectMapper.readTree(sortedQueryBuilder.renderSearch(request, null, true, false)));
+        assertEquals("price", sortedQueryBuilder.buildSort(request).get(0).field().field());
+        request.setExactHits(null);
+        assertEquals(1000, sortedQueryBuilder.totalHitsThreshold(request));
+        assertEquals(queryBuilder.buildCursorSort(),
+                queryBuilder.buildSort(new ComplexQueryRequestModel("tv", Map.of(), Order.DESC)));
+    }
+
+    @Test
+    void sendsOnlyTheOrderFieldWhenNoCursorIsIssued() throws Exception {
+        final QuerySettings querySettings = QuerySettings.parse("title, entity", "category, entity", 0, 0, "");
+        final QueryBuilder pagedQueryBuilder = new QueryBuilder(0.7, true, "id", "price", 1000, querySettings);
+        final QueryBuilder unpagedQueryBuilder = new QueryBuilder(0.7, false, "id", "price", 1000, querySettings);
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("tv", Map.of(), Order.ASC);
+
+        assertEquals(List.of("price", "id"), sortFields(pagedQueryBuilder.buildSort(request)));
+        assertEquals(List.of("price"), sortFields(pagedQueryBuilder.buildUnpagedSort(request)));
+        assertEquals(List.of("price"), sortFields(unpagedQueryBuilder.buildSort(request)));
+        assertEquals(objectMapper.readTree("[{\"price\":{\"order\":\"asc\"}}]"),
+                objectMapper.readTree(unpagedQueryBuilder.renderSearch(request, null, true, false)).get("sort"));
+        assertTrue(pagedQueryBuilder.buildUnpagedSort(new ComplexQueryRequestModel("tv", Map.of(), null)).isEmpty());
+        assertTrue(unpagedQueryBuilder.buildSort(new ComplexQueryRequestModel("tv", Map.of(), null)).isEmpty());
+        assertFalse(objectMapper.readTree(unpagedQueryBuilder.renderSearch(
+                new ComplexQueryRequestModel("tv", Map.of(), null), null, true, false)).has("sort"));
+    }
+
+    private static List<String> sortFields(final List<SortOptions> sort) {
+        return sort.stream().map(sortOptions -> sortOptions.field().field()).toList();
+    }
+
+    private JsonNode toTree(final SearchRequest searchRequest) throws Exception {
+        final StringWriter json = new StringWriter();
+        try (jakarta.json.stream.JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(json)) {
+            searchRequest.serialize(generator, jsonpMapper);
+        }
+        return objectMapper.readTree(json.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package com.edu.salem.service.query;
+
+import com.edu.salem.service.RetrievalMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCursorTests {
+
+    @Test
+    void roundTripsSearchAfterAndPointInTime() {
+        final String encoded = new SearchCursor(List.of("12.5", "sku-42"), "pit-id").encode();
+
+        final SearchCursor decoded = SearchCursor.decode(encoded);
+
+        assertEquals(List.of("12.5", "sku-42"), decoded.getSearchAfter());
+        assertEquals("pit-id", decoded.getPitId());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertTrue(SearchCursor.isValid(null));
+        assertNull(SearchCursor.decode(""));
+        assertFalse(SearchCursor.isValid("not a cursor"));
+        assertFalse(SearchCursor.isValid("AA"));
+    }
+
+    @Test
+    void rejectsCursorsOutsideLexicalRetrieval() {
+        final String encoded = new SearchCursor(List.of("12.5", "sku-42"), null).encode();
+
+        assertTrue(SearchCursor.isValid(encoded, RetrievalMode.LEXICAL));
+        assertFalse(SearchCursor.isValid(encoded, RetrievalMode.KNN));
+        assertFalse(SearchCursor.isValid(encoded, RetrievalMode.HYBRID));
+        assertTrue(SearchCursor.isValid(null, RetrievalMode.HYBRID));
+    }
+}
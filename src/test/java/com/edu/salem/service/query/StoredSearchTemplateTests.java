@@ -0,0 +1,115 @@
+package com.edu.salem.service.query;
+
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.PutScriptRequest;
+import org.opensearch.client.opensearch.core.PutScriptResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StoredSearchTemplateTests {
+
+    private static final Pattern SECTION = Pattern.compile("\\{\\{#(sorted|paged|aggregations|asc|desc)}}(.*?)\\{\\{/\\1}}", Pattern.DOTALL);
+    private static final Pattern TO_JSON = Pattern.compile("\\{\\{#toJson}}(\\w+)\\{\\{/toJson}}");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonpMapper jsonpMapper = new JacksonJsonpMapper();
+    private final QueryBuilder queryBuilder = new QueryBuilder(0.7, true, "id", "", 10000,
+            QuerySettings.parse("title, entity", "category, entity", 0, 0, ""));
+
+    @Test
+    void registersTheTemplateThroughTheClient() throws Exception {
+        final OpenSearchAsyncClient client = mock(OpenSearchAsyncClient.class);
+        when(client.putScript(any(PutScriptRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        PutScriptResponse.of(r -> r.acknowledged(true))));
+        final StoredSearchTemplate storedSearchTemplate = new StoredSearchTemplate(true, queryBuilder, client);
+        assertFalse(storedSearchTemplate.isActive());
+
+        assertTrue(storedSearchTemplate.register().get());
+
+        final ArgumentCaptor<PutScriptRequest> request = ArgumentCaptor.forClass(PutScriptRequest.class);
+        verify(client).putScript(request.capture());
+        assertEquals(storedSearchTemplate.getTemplateId(), request.getValue().id());
+        assertEquals("mustache", request.getValue().script().lang());
+        assertTrue(storedSearchTemplate.isActive());
+    }
+
+    @Test
+    void expandsToTheSameBodiesAsTheTypedRequests() throws Exception {
+        final StoredSearchTemplate storedSearchTemplate =
+                new StoredSearchTemplate(true, queryBuilder, mock(OpenSearchAsyncClient.class));
+        final ComplexQueryRequestModel request = new ComplexQueryRequestModel("smart \"phone\"", Map.of("category", "phones"), null);
+        final SearchCursor cursor = new SearchCursor(List.of("1.5", "sku-9"), null);
+
+        final SearchRequest hits = SearchRequest.of(s -> s
+                .size(request.getSize())
+                .from(0)
+                .trackTotalHits(queryBuilder.buildTrackTotalHits(request))
+                .sort(queryBuilder.buildCursorSort())
+                .searchAfter(cursor.getSearchAfter())
+                .query(queryBuilder.buildQuery(request)));
+        final SearchRequest aggregations = SearchRequest.of(s -> s
+                .size(0)
+                .from(0)
+                .trackTotalHits(t -> t.enabled(false))
+                .query(queryBuilder.buildQuery(request))
+                .aggregations(queryBuilder.buildAggregationFilters()));
+
+        assertEquals(toTree(hits), expand(storedSearchTemplate, storedSearchTemplate.renderParams(request, cursor, true, false)));
+        assertEquals(toTree(aggregations), expand(storedSearchTemplate, storedSearchTemplate.renderParams(request, null, false, true)));
+    }
+
+    private JsonNode expand(final StoredSearchTemplate storedSearchTemplate, final byte[] body) throws Exception {
+        final JsonNode params = objectMapper.readTree(body).get("params");
+        String source = storedSearchTemplate.getSource();
+        final Matcher sections = SECTION.matcher(source);
+        final StringBuilder expanded = new StringBuilder();
+        while (sections.find()) {
+            sections.appendReplacement(expanded, Matcher.quoteReplacement(
+                    params.get(sections.group(1)).asBoolean() ? sections.group(2) : ""));
+        }
+        sections.appendTail(expanded);
+        source = expanded.toString();
+        final Matcher toJson = TO_JSON.matcher(source);
+        final StringBuilder rendered = new StringBuilder();
+        while (toJson.find()) {
+            toJson.appendReplacement(rendered, Matcher.quoteReplacement(
+                    objectMapper.writeValueAsString(params.get(toJson.group(1)))));
+        }
+        toJson.appendTail(rendered);
+        final String queryTerm = objectMapper.writeValueAsString(params.get("queryTerm").asText());
+        return objectMapper.readTree(rendered.toString()
+                .replace("{{queryTerm}}", queryTerm.substring(1, queryTerm.length() - 1))
+                .replace("{{size}}", params.get("size").asText())
+                .replace("{{from}}", params.get("from").asText())
+                .replace("{{trackTotalHits}}", params.get("trackTotalHits").asText()));
+    }
+
+    private JsonNode toTree(final SearchRequest searchRequest) throws Exception {
+        final StringWriter json = new StringWriter();
+        try (jakarta.json.stream.JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(json)) {
+            searchRequest.serialize(generator, jsonpMapper);
+        }
+        return objectMapper.readTree(json.toString());
+    }
+}
@@ -0,0 +1,67 @@
+package com.edu.salem.service.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    @Test
+    void shedsCallsBeyondTheLimitInsteadOfQueueing() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 2, 1, 10, 100, 0.5);
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+
+        limiter.execute(() -> first);
+        limiter.execute(() -> second);
+        final CompletableFuture<String> shed = limiter.execute(() -> CompletableFuture.completedFuture("never"));
+
+        final CompletionException exception = assertThrows(CompletionException.class, shed::join);
+        assertInstanceOf(ConcurrencyLimitExceededException.class, exception.getCause());
+        first.complete("done");
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void timedOutCallsShrinkTheLimit() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 8, 2, 16, 1000, 0.5);
+
+        for (int i = 0; i < 3; i++) {
+            final CompletableFuture<String> call = limiter.execute(CompletableFuture::new);
+            final CompletableFuture<String> timed = call.copy().orTimeout(5, TimeUnit.MILLISECONDS);
+            timed.whenComplete((result, throwable) -> call.cancel(true));
+            assertInstanceOf(TimeoutException.class, assertThrows(CompletionException.class, timed::join).getCause());
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (limiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffMultiplicativelyAndRecoversAdditively() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 8, 2, 16, 100, 0.5);
+
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(500), 8, false);
+        assertEquals(4, limiter.getLimit());
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(5), 1, true);
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(5), 1, true);
+        assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(5), limiter.getLimit(), false);
+        }
+        assertTrue(limiter.getLimit() > 2);
+    }
+}
@@ -0,0 +1,90 @@
+package com.edu.salem.service.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestHedgerTests {
+
+    @Test
+    void hedgeAnswersForASlowPrimaryAndTheLoserIsCancelled() throws Exception {
+        final RequestHedger hedger = new RequestHedger(true, 95, 10, 10, 100, 1);
+        final List<String> preferences = new CopyOnWriteArrayList<>();
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+
+        final String winner = hedger.hedge(preference -> {
+            preferences.add(preference);
+            return preference == null ? primary : CompletableFuture.completedFuture("hedge");
+        }).get(1, TimeUnit.SECONDS);
+
+        assertEquals("hedge", winner);
+        assertNull(preferences.get(0));
+        assertTrue(preferences.get(1).startsWith("hedge-"));
+        assertThrows(CancellationException.class, () -> primary.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelledLosersDoNotShrinkTheConcurrencyLimit() throws Exception {
+        final RequestHedger hedger = new RequestHedger(true, 95, 10, 10, 100, 1);
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 8, 2, 16, 1000, 0.5);
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+
+        final String winner = hedger.hedge(preference -> limiter.execute(() -> preference == null
+                ? primary
+                : CompletableFuture.completedFuture("hedge"))).get(1, TimeUnit.SECONDS);
+
+        assertEquals("hedge", winner);
+        assertThrows(CancellationException.class, () -> primary.get(1, TimeUnit.SECONDS));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (limiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void primaryFailureIsReportedWithoutWaitingForTheHedgeDelay() {
+        final RequestHedger hedger = new RequestHedger(true, 95, 500, 500, 100, 1);
+        final List<String> preferences = new CopyOnWriteArrayList<>();
+        final IllegalStateException failure = new IllegalStateException("primary failed");
+
+        final CompletableFuture<String> result = hedger.hedge(preference -> {
+            preferences.add(preference);
+            return CompletableFuture.failedFuture(failure);
+        });
+
+        final ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> result.get(100, TimeUnit.MILLISECONDS));
+        assertSame(failure, exception.getCause());
+        assertEquals(1, preferences.size());
+    }
+
+    @Test
+    void exhaustedBudgetWaitsForThePrimary() throws Exception {
+        final RequestHedger hedger = new RequestHedger(true, 95, 10, 10, 0, 1);
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+        final List<String> preferences = new CopyOnWriteArrayList<>();
+
+        final CompletableFuture<String> result = hedger.hedge(preference -> {
+            preferences.add(preference);
+            return primary;
+        });
+        Thread.sleep(50);
+        primary.complete("primary");
+
+        assertEquals("primary", result.get(1, TimeUnit.SECONDS));
+        assertEquals(1, preferences.size());
+    }
+}
@@ -0,0 +1,30 @@
+package com.edu.salem.service.vector;
+
+import com.edu.salem.service.RetrievalMode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HashingEmbeddingProviderTests {
+
+    @Test
+    void hashingEmbeddingsAreDeterministicAndUnitLength() {
+        final HashingEmbeddingProvider provider = new HashingEmbeddingProvider(64, RetrievalMode.LEXICAL);
+        final float[] embedding = provider.embed("Galaxy  Z Flip");
+
+        assertArrayEquals(embedding, provider.embed("galaxy z flip"));
+        double norm = 0;
+        for (float value : embedding) {
+            norm += value * value;
+        }
+        assertEquals(1.0, norm, 1e-5);
+    }
+
+    @Test
+    void refusesToServeVectorRetrieval() {
+        assertThrows(IllegalStateException.class, () -> new HashingEmbeddingProvider(64, RetrievalMode.KNN));
+        assertThrows(IllegalStateException.class, () -> new HashingEmbeddingProvider(64, RetrievalMode.HYBRID));
+    }
+}
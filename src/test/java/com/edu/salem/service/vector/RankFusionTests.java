@@ -0,0 +1,27 @@
+package com.edu.salem.service.vector;
+
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch.core.search.Hit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankFusionTests {
+
+    @Test
+    void documentsRankedByBothLegsComeFirst() {
+        final List<Hit<String>> lexical = List.of(hit("a"), hit("b"), hit("c"));
+        final List<Hit<String>> knn = List.of(hit("d"), hit("c"), hit("a"));
+
+        final List<String> fused = RankFusion.reciprocalRank(60, List.of(lexical, knn)).stream()
+                .map(Hit::id)
+                .toList();
+
+        assertEquals(List.of("a", "c", "d", "b"), fused);
+    }
+
+    private static Hit<String> hit(final String id) {
+        return Hit.<String>of(h -> h.index("products").id(id).source(id));
+    }
+}
@@ -0,0 +1,115 @@
+package com.edu.salem.service.warmup;
+
+import com.edu.salem.cache.ComplexQueryKeyGenerator;
+import com.edu.salem.model.ComplexQueryRequestModel;
+import com.edu.salem.service.RetrievalMode;
+import com.edu.salem.service.SearchService;
+import com.edu.salem.service.metrics.SearchMetrics;
+import com.edu.salem.service.query.QueryBuilder;
+import com.edu.salem.service.query.QuerySettings;
+import com.edu.salem.util.HealthChecker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.when;
+
+class CacheWarmerTests {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SearchService searchService = mock(SearchService.class);
+    private final ComplexQueryKeyGenerator keyGenerator = new ComplexQueryKeyGenerator(mock(SearchMetrics.class),
+            new QueryBuilder(0.7, true, "id", "", 10000,
+                    QuerySettings.parse("title, entity", "category, entity", 0, 0, "")),
+            RetrievalMode.LEXICAL);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordedQueriesMostFrequentFirst() throws Exception {
+        final Path queryLog = directory.resolve("queries.jsonl");
+        final ComplexQueryRequestModel phone = new ComplexQueryRequestModel("phone", Map.of("category", "phones"), null);
+        final ComplexQueryRequestModel tv = new ComplexQueryRequestModel("tv", Map.of(), null);
+        final QueryLogRecorder queryLogRecorder = new QueryLogRecorder(true, 1.0, queryLog.toString(), objectMapper);
+        queryLogRecorder.record(tv);
+        queryLogRecorder.record(phone);
+        queryLogRecorder.record(phone);
+        awaitLines(queryLog, 3);
+        queryLogRecorder.stop();
+
+        cacheWarmer(queryLog).warmUpOnStartup();
+
+        final var replayed = inOrder(searchService);
+        replayed.verify(searchService, timeout(1000)).complexQuery(phone);
+        replayed.verify(searchService, timeout(1000)).complexQuery(tv);
+    }
+
+    @Test
+    void readinessStaysOutOfServiceUntilWarmUpFinishes() throws Exception {
+        final Path queryLog = directory.resolve("queries.jsonl");
+        Files.writeString(queryLog, objectMapper.writeValueAsString(new ComplexQueryRequestModel("tv", Map.of(), null)));
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        when(searchService.complexQuery(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(1, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        final CacheWarmer cacheWarmer = cacheWarmer(queryLog);
+        final HealthChecker healthChecker = new HealthChecker(cacheWarmer);
+
+        assertEquals(Status.OUT_OF_SERVICE, healthChecker.health().getStatus());
+        cacheWarmer.warmUpOnStartup();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertEquals(Status.OUT_OF_SERVICE, healthChecker.health().getStatus());
+
+        release.countDown();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!cacheWarmer.isWarm() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(Status.UP, healthChecker.health().getStatus());
+    }
+
+    @Test
+    void readinessIsUpWhenWarmUpIsDisabled() {
+        final CacheWarmer cacheWarmer = new CacheWarmer(searchService, mock(CacheManager.class), keyGenerator,
+                objectMapper, false, "", 10, 1000);
+
+        assertEquals(Status.UP, new HealthChecker(cacheWarmer).health().getStatus());
+    }
+
+    private CacheWarmer cacheWarmer(final Path queryLog) {
+        return new CacheWarmer(searchService, mock(CacheManager.class), keyGenerator, objectMapper, true,
+                queryLog.toString(), 10, 1000);
+    }
+
+    private static void awaitLines(final Path path, final int lines) throws Exception {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (Files.exists(path) && Files.readAllLines(path, StandardCharsets.UTF_8).size() >= lines) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(lines, Files.readAllLines(path, StandardCharsets.UTF_8).size());
+    }
+}